@@ -18,6 +18,7 @@ package be.atbash.config.mp;
 import be.atbash.config.mp.sources.ConfigSources;
 import be.atbash.config.mp.converter.Converters;
 import be.atbash.config.mp.converter.ImplicitConverters;
+import be.atbash.config.mp.expression.ExpressionDependencyGraph;
 import be.atbash.config.mp.util.ConvertValueUtil;
 import be.atbash.util.CollectionUtils;
 import org.eclipse.microprofile.config.Config;
@@ -30,7 +31,7 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * The {@code Config} implementation
@@ -43,12 +44,38 @@ public class AtbashConfig implements Config, Serializable {
     private final ConfigSources configSources;
     private final Map<Type, Converter<?>> converters;
 
+    // Caching the outcome of findConverter, including array types and types without converter.
+    private final ClassCache<Optional<Converter<?>>> resolvedConverters = new ClassCache<>(this::resolveConverter);
+
     // Caching the converters for Optional<T>
-    private final Map<Type, Converter<Optional<?>>> optionalConverters = new ConcurrentHashMap<>();
+    private final ClassCache<Converter<Optional<?>>> optionalConverters = new ClassCache<>(this::createOptionalConverter);
+
+    // Only available when requested through AtbashConfigBuilder#withValueCache()
+    private final ConvertedValueCache valueCache;
+
+    // The primitive getters parse the value directly when the built-in converter is used for the type.
+    private final boolean directInt;
+    private final boolean directLong;
+    private final boolean directDouble;
+    private final boolean directBoolean;
 
     AtbashConfig(AtbashConfigBuilder builder, Map<Type, Converter<?>> converters) {
-        this.configSources = new ConfigSources(builder);
+        this(builder, new ConfigSources(builder), converters);
+    }
+
+    AtbashConfig(AtbashConfigBuilder builder, ConfigSources configSources, Map<Type, Converter<?>> converters) {
+        this.configSources = configSources;
         this.converters = converters;
+        this.valueCache = builder.isValueCache() ? new ConvertedValueCache() : null;
+        // With the value cache, the cached (boxed) values are used.
+        boolean direct = valueCache == null;
+        this.directInt = direct && Converters.isBuiltInConverter(Integer.class, converters.get(Integer.class));
+        this.directLong = direct && Converters.isBuiltInConverter(Long.class, converters.get(Long.class));
+        this.directDouble = direct && Converters.isBuiltInConverter(Double.class, converters.get(Double.class));
+        this.directBoolean = direct && Converters.isBuiltInConverter(Boolean.class, converters.get(Boolean.class));
+        if (valueCache != null) {
+            configSources.addInvalidationListener(names -> names.forEach(valueCache::invalidate));
+        }
     }
 
     @Override
@@ -61,6 +88,9 @@ public class AtbashConfig implements Config, Serializable {
             }
             return (T) configValue;
         }
+        if (valueCache != null) {
+            return valueCache.get(name, aClass, false, () -> getValue(name, requireConverter(aClass)));
+        }
         return getValue(name, requireConverter(aClass));
     }
 
@@ -86,9 +116,352 @@ public class AtbashConfig implements Config, Serializable {
             ConfigValue configValue = configSources.getInterceptorChain().proceed(name);
             return (Optional<T>) Optional.of(configValue);
         }
+        if (valueCache != null) {
+            return valueCache.get(name, aClass, true, () -> (Optional<T>) getValue(name, getOptionalConverter(aClass)));
+        }
         return (Optional<T>) getValue(name, getOptionalConverter(aClass));
     }
 
+    /**
+     * Returns the value of the property as an int, with the same semantics as {@code getValue(name, Integer.class)}.
+     * When the built-in converter is used, the value is parsed without boxing and without creating intermediate
+     * Strings.
+     *
+     * @param name the name of the property.
+     * @return the value of the property.
+     * @throws NoSuchElementException   if the property is not defined or is empty.
+     * @throws IllegalArgumentException if the value is not an int.
+     */
+    public int getInt(String name) {
+        if (directInt) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            if (begin < end) {
+                try {
+                    return Integer.parseInt(value, begin, end, 10);
+                } catch (NumberFormatException e) {
+                    // The converter throws the exception with the expected message.
+                }
+            }
+        }
+        return getValue(name, Integer.class);
+    }
+
+    /**
+     * Returns the value of the property as an int, with the same semantics as
+     * {@code getOptionalValue(name, Integer.class).orElse(defaultValue)}.
+     *
+     * @param name         the name of the property.
+     * @param defaultValue the value when the property is not defined or is empty.
+     * @return the value of the property.
+     * @throws IllegalArgumentException if the value is not an int.
+     */
+    public int getInt(String name, int defaultValue) {
+        if (directInt) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            if (begin >= end) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value, begin, end, 10);
+            } catch (NumberFormatException e) {
+                // The converter throws the exception with the expected message.
+            }
+        }
+        return getOptionalValue(name, Integer.class).orElse(defaultValue);
+    }
+
+    /**
+     * Returns the value of the property as a long, with the same semantics as {@code getValue(name, Long.class)}.
+     * When the built-in converter is used, the value is parsed without boxing and without creating intermediate
+     * Strings.
+     *
+     * @param name the name of the property.
+     * @return the value of the property.
+     * @throws NoSuchElementException   if the property is not defined or is empty.
+     * @throws IllegalArgumentException if the value is not a long.
+     */
+    public long getLong(String name) {
+        if (directLong) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            if (begin < end) {
+                try {
+                    return Long.parseLong(value, begin, end, 10);
+                } catch (NumberFormatException e) {
+                    // The converter throws the exception with the expected message.
+                }
+            }
+        }
+        return getValue(name, Long.class);
+    }
+
+    /**
+     * Returns the value of the property as a long, with the same semantics as
+     * {@code getOptionalValue(name, Long.class).orElse(defaultValue)}.
+     *
+     * @param name         the name of the property.
+     * @param defaultValue the value when the property is not defined or is empty.
+     * @return the value of the property.
+     * @throws IllegalArgumentException if the value is not a long.
+     */
+    public long getLong(String name, long defaultValue) {
+        if (directLong) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            if (begin >= end) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value, begin, end, 10);
+            } catch (NumberFormatException e) {
+                // The converter throws the exception with the expected message.
+            }
+        }
+        return getOptionalValue(name, Long.class).orElse(defaultValue);
+    }
+
+    /**
+     * Returns the value of the property as a double, with the same semantics as {@code getValue(name, Double.class)}.
+     * When the built-in converter is used, the value is parsed without boxing.
+     *
+     * @param name the name of the property.
+     * @return the value of the property.
+     * @throws NoSuchElementException   if the property is not defined or is empty.
+     * @throws IllegalArgumentException if the value is not a double.
+     */
+    public double getDouble(String name) {
+        if (directDouble) {
+            String value = getResolvedValue(name);
+            if (trimBegin(value) < trimEnd(value)) {
+                try {
+                    // Ignores the leading and trailing whitespace, like the converter.
+                    return Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    // The converter throws the exception with the expected message.
+                }
+            }
+        }
+        return getValue(name, Double.class);
+    }
+
+    /**
+     * Returns the value of the property as a double, with the same semantics as
+     * {@code getOptionalValue(name, Double.class).orElse(defaultValue)}.
+     *
+     * @param name         the name of the property.
+     * @param defaultValue the value when the property is not defined or is empty.
+     * @return the value of the property.
+     * @throws IllegalArgumentException if the value is not a double.
+     */
+    public double getDouble(String name, double defaultValue) {
+        if (directDouble) {
+            String value = getResolvedValue(name);
+            if (trimBegin(value) >= trimEnd(value)) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                // The converter throws the exception with the expected message.
+            }
+        }
+        return getOptionalValue(name, Double.class).orElse(defaultValue);
+    }
+
+    /**
+     * Returns the value of the property as a boolean, with the same semantics as
+     * {@code getValue(name, Boolean.class)}. When the built-in converter is used, the value is checked without
+     * boxing and without creating intermediate Strings.
+     *
+     * @param name the name of the property.
+     * @return the value of the property.
+     * @throws NoSuchElementException if the property is not defined or is empty.
+     */
+    public boolean getBoolean(String name) {
+        if (directBoolean) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            if (begin < end) {
+                return isTrue(value, begin, end);
+            }
+        }
+        return getValue(name, Boolean.class);
+    }
+
+    /**
+     * Returns the value of the property as a boolean, with the same semantics as
+     * {@code getOptionalValue(name, Boolean.class).orElse(defaultValue)}.
+     *
+     * @param name         the name of the property.
+     * @param defaultValue the value when the property is not defined or is empty.
+     * @return the value of the property.
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        if (directBoolean) {
+            String value = getResolvedValue(name);
+            int begin = trimBegin(value);
+            int end = trimEnd(value);
+            return begin >= end ? defaultValue : isTrue(value, begin, end);
+        }
+        return getOptionalValue(name, Boolean.class).orElse(defaultValue);
+    }
+
+    private String getResolvedValue(String name) {
+        ConfigValue configValue = configSources.getInterceptorChain().proceed(name);
+        return configValue == null ? null : configValue.getValue();
+    }
+
+    // The same whitespace as String.trim(), 0 for null.
+    private static int trimBegin(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int begin = 0;
+        while (begin < value.length() && value.charAt(begin) <= ' ') {
+            begin++;
+        }
+        return begin;
+    }
+
+    private static int trimEnd(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    // Same values as the built-in Boolean converter.
+    private static boolean isTrue(String value, int begin, int end) {
+        return matches(value, begin, end, "TRUE") || matches(value, begin, end, "1") || matches(value, begin, end, "YES")
+                || matches(value, begin, end, "Y") || matches(value, begin, end, "ON");
+    }
+
+    private static boolean matches(String value, int begin, int end, String expected) {
+        return end - begin == expected.length() && value.regionMatches(true, begin, expected, 0, expected.length());
+    }
+
+    /**
+     * Removes the cached values of the property, and of all properties that depend on it through expressions, so
+     * that the next lookup retrieves them again from the {@link ConfigSource}s. Covers the value cache
+     * ({@link AtbashConfigBuilder#withValueCache()}) and the resolved expressions
+     * ({@link AtbashConfigBuilder#withPreResolvedExpressions()}).
+     *
+     * @param name the name of the property.
+     */
+    public void invalidateCachedValue(String name) {
+        configSources.invalidateExpressions(name);
+        if (valueCache != null) {
+            valueCache.invalidate(name);
+            for (String dependent : configSources.getExpressionDependencyGraph().getDependents(name)) {
+                valueCache.invalidate(dependent);
+            }
+        }
+        configSources.increaseGeneration();
+    }
+
+    /**
+     * Removes all cached values and resolved expressions.
+     */
+    public void invalidateCachedValues() {
+        configSources.invalidateExpressions();
+        if (valueCache != null) {
+            valueCache.invalidateAll();
+        }
+        configSources.increaseGeneration();
+    }
+
+    /**
+     * Registers a listener that receives the properties of which the effective value changed, after a change in
+     * a {@link be.atbash.config.mp.sources.ObservableConfigSource}. The effective value is the value as returned by
+     * this Config, so with profiles applied and expressions expanded. A property that references a changed property
+     * through an expression is also reported when its value changes.
+     *
+     * @param listener The listener.
+     */
+    public void addChangeListener(ConfigChangeListener listener) {
+        configSources.addChangeListener(listener);
+    }
+
+    public void removeChangeListener(ConfigChangeListener listener) {
+        configSources.removeChangeListener(listener);
+    }
+
+    /**
+     * The generation of the configuration values, increased after every change of a
+     * {@link be.atbash.config.mp.sources.ObservableConfigSource} and by {@link #invalidateCachedValue(String)} and
+     * {@link #invalidateCachedValues()}. A cache of the caller can compare it with the
+     * generation of the cached values to know if they are still current.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+        return configSources.getGeneration();
+    }
+
+    /**
+     * Executes the reader so that all values it retrieves from this Config belong to the same generation. When a
+     * ConfigSource changes while the reader is executing, it is executed again. The reader must not have side
+     * effects and must not wait for a change of the configuration.
+     * <p>
+     * This is only guaranteed when every change results in a new generation, that is when all sources are
+     * {@link be.atbash.config.mp.sources.StaticConfigSource}s or
+     * {@link be.atbash.config.mp.sources.ObservableConfigSource}s (see {@link ConfigSources#isGenerationTracked()}).
+     * Changes of other sources, like the system properties of the default sources, are not detected.
+     *
+     * @param reader the code retrieving the values.
+     * @param <T>    the type of the result.
+     * @return the result of the reader, based on values of a single generation of the tracked sources.
+     * @throws IllegalStateException when called while the calling thread is executing a change of this Config, like
+     *                               from a listener of another Config that shares an ObservableConfigSource.
+     */
+    public <T> T readConsistently(Function<AtbashConfig, T> reader) {
+        while (true) {
+            configSources.awaitChangesCompleted();
+            long generation = configSources.getGeneration();
+            if (!configSources.isChangeInProgress()) {
+                T result = reader.apply(this);
+                if (!configSources.isChangeInProgress() && configSources.getGeneration() == generation) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a handle for repeated reads of the property. The converter is looked up once and, when every change
+     * results in a new generation (see {@link ConfigSources#isGenerationTracked()}), the converted value is kept
+     * until the generation changes.
+     *
+     * @param name   the name of the property.
+     * @param aClass the type of the property value.
+     * @param <T>    the type of the property value.
+     * @return the handle for the property.
+     * @throws IllegalArgumentException if no converter is available for the type.
+     */
+    public <T> ConfigHandle<T> getHandle(String name, Class<T> aClass) {
+        return new ConfigHandle<>(this, configSources, name, requireConverter(aClass));
+    }
+
+    /**
+     * Returns the references between properties through expressions. Only available when the Config is built with
+     * {@link AtbashConfigBuilder#withPreResolvedExpressions()}, otherwise the graph is empty. The result is a copy
+     * that can't be changed.
+     */
+    public ExpressionDependencyGraph getExpressionDependencyGraph() {
+        return configSources.getExpressionDependencyGraph().unmodifiableCopy();
+    }
+
     @Override
     public Iterable<String> getPropertyNames() {
         Iterator<String> namesIterator = configSources.getInterceptorChain().iterateNames();
@@ -105,9 +478,13 @@ public class AtbashConfig implements Config, Serializable {
         return value != null ? requireConverter(asType).convert(value) : null;
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     private <T> Converter<Optional<?>> getOptionalConverter(Class<T> asType) {
-        return optionalConverters.computeIfAbsent(asType, clazz -> Converters.newOptionalConverter(requireConverter((Class) clazz)));
+        return optionalConverters.get(asType);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Converter<Optional<?>> createOptionalConverter(Class<?> asType) {
+        return Converters.newOptionalConverter(requireConverter((Class) asType));
     }
 
     @Override
@@ -140,6 +517,10 @@ public class AtbashConfig implements Config, Serializable {
     }
 
     private Optional<Converter<?>> findConverter(Class<?> asType) {
+        return resolvedConverters.get(asType);
+    }
+
+    private Optional<Converter<?>> resolveConverter(Class<?> asType) {
         Converter<?> exactConverter = converters.get(asType);
         if (exactConverter != null) {
             return Optional.of(exactConverter);
@@ -151,7 +532,8 @@ public class AtbashConfig implements Config, Serializable {
             Optional<Converter<?>> arrayTypeConverter = findConverter(asType.getComponentType());
             return arrayTypeConverter.map(c -> Converters.newArrayConverter(c, asType));
         }
-        return Optional.ofNullable(converters.computeIfAbsent(asType, clazz -> ImplicitConverters.getConverter((Class<?>) clazz)));
+        // Not stored within converters, the class can belong to another ClassLoader (see ClassCache).
+        return Optional.ofNullable(ImplicitConverters.getConverter(asType));
     }
 
 
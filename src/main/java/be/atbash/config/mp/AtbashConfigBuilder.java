@@ -18,13 +18,16 @@ package be.atbash.config.mp;
 import be.atbash.config.mp.converter.Converters;
 import be.atbash.config.mp.sources.ConfigSources;
 import be.atbash.config.mp.util.AnnotationUtil;
+import be.atbash.config.mp.util.ExecutorUtil;
 import org.eclipse.microprofile.config.spi.ConfigBuilder;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.eclipse.microprofile.config.spi.Converter;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -47,6 +50,10 @@ public class AtbashConfigBuilder implements ConfigBuilder {
     private boolean addDiscoveredSources = false;
     private boolean addDiscoveredConverters = false;
     private boolean addDiscoveredInterceptors = false;
+    private boolean valueCache = false;
+    private boolean preResolveExpressions = false;
+    private boolean frozen = false;
+    private Executor loadExecutor;
 
 
     @Override
@@ -77,6 +84,57 @@ public class AtbashConfigBuilder implements ConfigBuilder {
         return this;
     }
 
+    /**
+     * Keeps the converted values of {@link AtbashConfig#getValue(String, Class)} and
+     * {@link AtbashConfig#getOptionalValue(String, Class)} so that a repeated lookup of the same name and type doesn't
+     * need to go through the interceptor chain and the converter again. Changes in the {@link ConfigSource}s are not
+     * picked up until the cached value is invalidated with {@link AtbashConfig#invalidateCachedValue(String)} or
+     * {@link AtbashConfig#invalidateCachedValues()}.
+     */
+    public AtbashConfigBuilder withValueCache() {
+        this.valueCache = true;
+        return this;
+    }
+
+    /**
+     * Resolves the expressions of all properties when the Config is built, and keeps the result for the properties
+     * where the value and all referenced values come from a static {@link ConfigSource}. Loops between properties
+     * are detected exactly. When a referenced property changes, use {@link AtbashConfig#invalidateCachedValue(String)}
+     * so that all properties depending on it are evaluated again.
+     * <p>
+     * Only the static sources with a higher ordinal than every dynamic source (neither static nor observable) are
+     * used, as a dynamic source can hide their values at any moment. With {@link #addDefaultSources()}, the system
+     * properties are such a dynamic source with the highest ordinal, so nothing is pre-resolved and a warning is
+     * logged.
+     */
+    public AtbashConfigBuilder withPreResolvedExpressions() {
+        this.preResolveExpressions = true;
+        return this;
+    }
+
+    /**
+     * Resolves the effective value of all properties when the Config is built, with profiles applied and expressions
+     * expanded, and serves them from an immutable structure. Use this when the {@link ConfigSource}s never change
+     * since changes are not picked up, also not by {@link AtbashConfig#invalidateCachedValue(String)}. Names that
+     * are not listed by the sources, like environment variables found through their dotted name, are still looked
+     * up through the interceptors.
+     */
+    public AtbashConfigBuilder freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Loads the discovered {@link ConfigSource}s from the {@link org.eclipse.microprofile.config.spi.ConfigSourceProvider}s
+     * and the {@code META-INF/microprofile-config.properties} resources concurrently on the executor. A bounded
+     * pool or an executor creating a virtual thread per task can be used. The resulting order of the ConfigSources,
+     * also for the ones with the same ordinal, is the same as when they are loaded one after the other.
+     */
+    public AtbashConfigBuilder withLoadExecutor(Executor executor) {
+        this.loadExecutor = executor;
+        return this;
+    }
+
     @Override
     public AtbashConfigBuilder forClassLoader(ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -154,6 +212,22 @@ public class AtbashConfigBuilder implements ConfigBuilder {
         return addDiscoveredInterceptors;
     }
 
+    public boolean isValueCache() {
+        return valueCache;
+    }
+
+    public boolean isPreResolveExpressions() {
+        return preResolveExpressions;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    public Executor getLoadExecutor() {
+        return loadExecutor;
+    }
+
     private Map<Type, Converter<?>> buildConverters() {
         // Converters added through the builder
         Map<Type, ConverterWithPriority> convertersToBuild = new HashMap<>(getConverters());
@@ -192,6 +266,27 @@ public class AtbashConfigBuilder implements ConfigBuilder {
         return new AtbashConfig(this, allConverters);
     }
 
+    /**
+     * Builds the Config on the executor so that the caller isn't blocked. The converters (including the discovery of
+     * them) and the ConfigSources (discovery, reading the files and interceptors) are built concurrently. The
+     * builder must not be changed until the returned future is completed. Any exception during the build completes
+     * the future exceptionally.
+     * <p>
+     * The tasks run with the context ClassLoader of the caller, so that the same converters and ConfigSources are
+     * discovered as with {@link #build()}.
+     *
+     * @param executor The executor to build the Config on.
+     * @return The future of the Config.
+     */
+    public CompletableFuture<AtbashConfig> buildAsync(Executor executor) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        CompletableFuture<Map<Type, Converter<?>>> allConverters = CompletableFuture.supplyAsync(
+                ExecutorUtil.withContextClassLoader(contextClassLoader, this::buildConverters), executor);
+        CompletableFuture<ConfigSources> configSources = CompletableFuture.supplyAsync(
+                ExecutorUtil.withContextClassLoader(contextClassLoader, () -> new ConfigSources(this)), executor);
+        return configSources.thenCombine(allConverters, (sources, converters) -> new AtbashConfig(this, sources, converters));
+    }
+
     static class ConverterWithPriority {
         private final Converter<?> converter;
         private final int priority;
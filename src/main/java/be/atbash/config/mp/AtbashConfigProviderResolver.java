@@ -22,8 +22,6 @@ import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
 /**
@@ -34,7 +32,8 @@ import java.util.stream.StreamSupport;
 public class AtbashConfigProviderResolver extends ConfigProviderResolver {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSources.class.getName());
 
-    private final Map<ClassLoader, Config> configsForClassLoader = new ConcurrentHashMap<>();
+    // The Config of a ClassLoader that is garbage collected is removed and closed as if it was released.
+    private final ConfigRegistry configsForClassLoader = new ConfigRegistry(this::closeConfig);
 
     static final ClassLoader SYSTEM_CL = calculateSystemClassLoader();
 
@@ -56,7 +55,11 @@ public class AtbashConfigProviderResolver extends ConfigProviderResolver {
     @Override
     public Config getConfig(ClassLoader classLoader) {
         ClassLoader realClassLoader = getRealClassLoader(classLoader);
-        Config config;
+        // Lock free when the Config already exists, only the creation needs to be guarded against register and release.
+        Config config = configsForClassLoader.get(realClassLoader);
+        if (config != null) {
+            return config;
+        }
         synchronized (configsForClassLoader) {
             config = configsForClassLoader.computeIfAbsent(realClassLoader, this::getConfigFor);
         }
@@ -98,12 +101,16 @@ public class AtbashConfigProviderResolver extends ConfigProviderResolver {
     @Override
     public void releaseConfig(Config config) {
         synchronized (configsForClassLoader) {
-            configsForClassLoader.values().removeIf(v -> v == config);
-            closeConverterIfNeeded(config);
-            closeConfigSourceIfNeeded(config);
+            configsForClassLoader.remove(config);
+            closeConfig(config);
         }
     }
 
+    private void closeConfig(Config config) {
+        closeConverterIfNeeded(config);
+        closeConfigSourceIfNeeded(config);
+    }
+
     private void closeConverterIfNeeded(Config config) {
         // Spec 6.5, if Converter implements AutoCloseable, it must be closed when Config is released.
         config.unwrap(AtbashConfig.class).getConverters()
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of a value calculated for a class, used by {@link AtbashConfig} for the converters. The value for a class of
+ * another ClassLoader than the one of this library (or one of its parents), like a class of a web application, is
+ * kept with the class itself through a {@link ClassValue}. The Config then doesn't keep that ClassLoader reachable.
+ * The values for the other classes are kept by the cache and have the lifetime of the Config.
+ * <p>
+ * The function may use the cache for another class, like the component type of an array type. It can be called more
+ * than once for the same class when requested concurrently, the first value that is stored is returned.
+ */
+final class ClassCache<V> {
+
+    private static final Set<ClassLoader> LIBRARY_CLASS_LOADERS = getLibraryClassLoaders();
+
+    private final Function<Class<?>, V> function;
+    private final Map<Class<?>, V> values = new ConcurrentHashMap<>();
+    private final ClassValue<V> foreignValues = new ClassValue<>() {
+        @Override
+        protected V computeValue(Class<?> type) {
+            return function.apply(type);
+        }
+    };
+
+    ClassCache(Function<Class<?>, V> function) {
+        this.function = function;
+    }
+
+    V get(Class<?> type) {
+        if (isForeign(type)) {
+            return foreignValues.get(type);
+        }
+        V value = values.get(type);
+        if (value == null) {
+            // Not computeIfAbsent as the function can use the cache recursively.
+            value = function.apply(type);
+            V existing = values.putIfAbsent(type, value);
+            if (existing != null) {
+                value = existing;
+            }
+        }
+        return value;
+    }
+
+    private static boolean isForeign(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        return classLoader != null && !LIBRARY_CLASS_LOADERS.contains(classLoader);
+    }
+
+    private static Set<ClassLoader> getLibraryClassLoaders() {
+        Set<ClassLoader> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        ClassLoader classLoader = ClassCache.class.getClassLoader();
+        while (classLoader != null) {
+            result.add(classLoader);
+            classLoader = classLoader.getParent();
+        }
+        return result;
+    }
+}
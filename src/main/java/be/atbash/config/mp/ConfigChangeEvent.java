@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import org.eclipse.microprofile.config.ConfigValue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The properties of which the effective value changed, with profiles applied and expressions expanded, due to a
+ * change in one of the ConfigSources.
+ */
+public final class ConfigChangeEvent {
+
+    private final Set<String> changedNames;
+    private final Map<String, ConfigValue> oldValues;
+    private final Map<String, ConfigValue> newValues;
+
+    public ConfigChangeEvent(Set<String> changedNames, Map<String, ConfigValue> oldValues, Map<String, ConfigValue> newValues) {
+        this.changedNames = Collections.unmodifiableSet(changedNames);
+        this.oldValues = oldValues;
+        this.newValues = newValues;
+    }
+
+    public Set<String> getChangedNames() {
+        return changedNames;
+    }
+
+    /**
+     * @param name The name of the property.
+     * @return The value before the change, null when the property didn't exist or couldn't be resolved.
+     */
+    public ConfigValue getOldValue(String name) {
+        return oldValues.get(name);
+    }
+
+    /**
+     * @param name The name of the property.
+     * @return The value after the change, null when the property is removed or can't be resolved.
+     */
+    public ConfigValue getNewValue(String name) {
+        return newValues.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChangeEvent{changedNames=" + changedNames + '}';
+    }
+}
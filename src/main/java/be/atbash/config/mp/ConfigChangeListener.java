@@ -0,0 +1,26 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+/**
+ * Receives the changes of the effective configuration values of a Config, see
+ * {@link AtbashConfig#addChangeListener(ConfigChangeListener)}.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+
+    void onChange(ConfigChangeEvent event);
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import be.atbash.config.mp.converter.Converters;
+import be.atbash.config.mp.sources.ConfigSources;
+import be.atbash.config.mp.util.ConvertValueUtil;
+import org.eclipse.microprofile.config.spi.Converter;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A property bound to its type and {@link Converter}, for reading the value repeatedly. Obtained through
+ * {@link AtbashConfig#getHandle(String, Class)}.
+ * <p>
+ * When the generation of the Config is tracked for all sources, the converted value is kept and only resolved again
+ * after the generation changed. Otherwise, like with the default system properties source, each read goes through
+ * the interceptor chain but the converter is not looked up again and the value is only converted again when it
+ * changed.
+ *
+ * @param <T> the type of the property value.
+ */
+public final class ConfigHandle<T> {
+
+    private final AtbashConfig config;
+    private final ConfigSources configSources;
+    private final String name;
+    private final Converter<T> converter;
+    private final Converter<Optional<T>> optionalConverter;
+
+    // The generation of a Snapshot that is only used when the value didn't change, generations start at 0.
+    private static final long NOT_TRACKED = -1;
+
+    private volatile Snapshot<T> snapshot;
+
+    ConfigHandle(AtbashConfig config, ConfigSources configSources, String name, Converter<T> converter) {
+        this.config = config;
+        this.configSources = configSources;
+        this.name = name;
+        this.converter = converter;
+        this.optionalConverter = Converters.newOptionalConverter(converter);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Same semantics as {@link AtbashConfig#getValue(String, Class)}.
+     *
+     * @return the converted value of the property.
+     * @throws NoSuchElementException   if the property is not defined or is converted to null.
+     * @throws IllegalArgumentException if the value can't be converted.
+     */
+    public T get() {
+        Snapshot<T> current = getSnapshot();
+        if (current.converted != null) {
+            return current.converted;
+        }
+        // Not defined or not convertible, let the conversion throw the appropriate exception.
+        return ConvertValueUtil.convertValue(name, current.value, converter);
+    }
+
+    /**
+     * Same semantics as {@link AtbashConfig#getOptionalValue(String, Class)}.
+     *
+     * @return the converted value of the property, or empty if not defined.
+     * @throws IllegalArgumentException if the value can't be converted.
+     */
+    public Optional<T> getOptional() {
+        Snapshot<T> current = getSnapshot();
+        if (current.converted != null) {
+            return Optional.of(current.converted);
+        }
+        return ConvertValueUtil.convertValue(name, current.value, optionalConverter);
+    }
+
+    private Snapshot<T> getSnapshot() {
+        Snapshot<T> current = snapshot;
+        long generation = configSources.getGeneration();
+        if (current != null && current.generation == generation) {
+            return current;
+        }
+        boolean cacheable = configSources.isGenerationTracked() && !configSources.isChangeInProgress();
+        String value = config.getConfigValue(name).getValue();
+        if (current != null && Objects.equals(current.value, value)) {
+            if (!cacheable) {
+                // Same value as the previous read, no conversion and no new Snapshot needed.
+                return current;
+            }
+            current = new Snapshot<>(generation, value, current.converted);
+        } else {
+            T converted;
+            try {
+                converted = ConvertValueUtil.convertValue(name, value, converter);
+            } catch (IllegalArgumentException | NoSuchElementException e) {
+                converted = null;
+            }
+            current = new Snapshot<>(cacheable ? generation : NOT_TRACKED, value, converted);
+        }
+        // A change that starts now results in a new generation, the snapshot is then no longer used.
+        snapshot = current;
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigHandle{" + name + '}';
+    }
+
+    private static final class Snapshot<T> {
+        private final long generation;
+        private final String value;
+        // null when the value isn't defined or can't be converted.
+        private final T converted;
+
+        private Snapshot(long generation, String value, T converted) {
+            this.generation = generation;
+            this.value = value;
+            this.converted = converted;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import org.eclipse.microprofile.config.Config;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps the Config for each ClassLoader, without keeping the ClassLoader reachable. The ClassLoaders are compared
+ * on identity. When a ClassLoader is garbage collected, the Config is removed from the registry and handed to the
+ * expunge callback the next time the registry is modified.
+ * <p>
+ * Java has no ephemerons, so a Config that refers to its ClassLoader (for example because a ConfigSource or
+ * Converter is loaded by it) still keeps the ClassLoader reachable through the registry. Such a Config needs to be
+ * released explicitly.
+ * <p>
+ * Lookups can be done concurrently, modifications must be synchronized by the caller.
+ */
+final class ConfigRegistry {
+
+    private final Map<Object, Config> configs = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+    private final Consumer<Config> expungeCallback;
+
+    ConfigRegistry(Consumer<Config> expungeCallback) {
+        this.expungeCallback = expungeCallback;
+    }
+
+    Config get(ClassLoader classLoader) {
+        return configs.get(new LookupKey(classLoader));
+    }
+
+    Config computeIfAbsent(ClassLoader classLoader, Function<ClassLoader, Config> function) {
+        expungeStaleEntries();
+        Config config = configs.get(new LookupKey(classLoader));
+        if (config == null) {
+            config = function.apply(classLoader);
+            configs.put(new LoaderKey(classLoader, queue), config);
+        }
+        return config;
+    }
+
+    Config putIfAbsent(ClassLoader classLoader, Config config) {
+        expungeStaleEntries();
+        Config existing = configs.get(new LookupKey(classLoader));
+        if (existing == null) {
+            configs.put(new LoaderKey(classLoader, queue), config);
+        }
+        return existing;
+    }
+
+    void remove(Config config) {
+        expungeStaleEntries();
+        configs.values().removeIf(v -> v == config);
+    }
+
+    int size() {
+        return configs.size();
+    }
+
+    void expungeStaleEntries() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = queue.poll()) != null) {
+            Config config = configs.remove(reference);
+            if (config != null) {
+                expungeCallback.accept(config);
+            }
+        }
+    }
+
+    /**
+     * The key within the Map, referencing the ClassLoader weakly.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof LoaderKey) {
+                ClassLoader classLoader = get();
+                return classLoader != null && classLoader == ((LoaderKey) o).get();
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The key used for a lookup, never stored within the Map.
+     */
+    private static final class LookupKey {
+        private final ClassLoader classLoader;
+        private final int hash;
+
+        LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LoaderKey && ((LoaderKey) o).get() == classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -45,7 +45,8 @@ public class ConfigValueImpl implements ConfigValue {
         }
         this.name = builder.name;
         this.value = builder.value;
-        this.rawValue = builder.rawValue;
+        // Share the instance when there was no expression, to not keep the same String twice.
+        this.rawValue = builder.value != null && builder.value.equals(builder.rawValue) ? builder.value : builder.rawValue;
         this.profile = builder.profile;
         this.configSourceName = builder.configSourceName;
         this.configSourceOrdinal = builder.configSourceOrdinal;
@@ -80,15 +81,26 @@ public class ConfigValueImpl implements ConfigValue {
         return configSourceOrdinal;
     }
 
+    // The with methods return this instance when nothing changes, an unchanged value doesn't cost an allocation.
+
     public ConfigValue withName(String name) {
+        if (this.name.equals(name)) {
+            return this;
+        }
         return from().withName(name).build();
     }
 
     public ConfigValue withValue(String value) {
+        if (Objects.equals(this.value, value)) {
+            return this;
+        }
         return from().withValue(value).build();
     }
 
     public ConfigValue withProfile(String profile) {
+        if (Objects.equals(this.profile, profile)) {
+            return this;
+        }
         return from().withProfile(profile).build();
     }
 
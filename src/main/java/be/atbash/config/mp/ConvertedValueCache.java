@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the converted values kept by {@link AtbashConfig} when enabled through
+ * {@link AtbashConfigBuilder#withValueCache()}. Entries are grouped by the property name and keyed by the target type
+ * and whether the value was requested as an {@code Optional}.
+ */
+final class ConvertedValueCache {
+
+    // An invalidation removes the values of the name at once. A value is stored in the group that was current when
+    // its calculation started, so a value calculated concurrently with an invalidation ends up in a removed group and
+    // is never returned.
+    private final Map<String, Map<Key, Object>> values = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    <T> T get(String name, Class<?> type, boolean optional, Supplier<T> valueSupplier) {
+        Key key = new Key(type, optional);
+        Map<Key, Object> nameValues = values.get(name);
+        if (nameValues == null) {
+            nameValues = values.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        }
+        Object value = nameValues.get(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T result = valueSupplier.get();
+        Object previous = nameValues.putIfAbsent(key, result);
+        return previous == null ? result : (T) previous;
+    }
+
+    void invalidate(String name) {
+        values.remove(name);
+    }
+
+    void invalidateAll() {
+        values.clear();
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final boolean optional;
+
+        private Key(Class<?> type, boolean optional) {
+            this.type = type;
+            this.optional = optional;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && optional == other.optional;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + Boolean.hashCode(optional);
+        }
+    }
+}
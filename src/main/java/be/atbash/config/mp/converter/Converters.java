@@ -167,6 +167,17 @@ public final class Converters {
         return new HashMap<>(ALL_CONVERTERS);
     }
 
+    /**
+     * Is the converter the built-in converter for the type.
+     *
+     * @param type      the type of the converter.
+     * @param converter the converter.
+     * @return true when the converter is the one provided by this class for the type.
+     */
+    public static boolean isBuiltInConverter(Type type, Converter<?> converter) {
+        return converter != null && ALL_CONVERTERS.get(type) == converter;
+    }
+
     static {
         ALL_CONVERTERS.put(String.class, STRING_CONVERTER);
 
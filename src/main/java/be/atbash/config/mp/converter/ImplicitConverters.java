@@ -19,15 +19,23 @@ import org.eclipse.microprofile.config.spi.Converter;
 
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 
 /**
  * Based on GERONIMO-6595 support implicit converters.
  * <p>
  * Based on code by Jeff Mesnil</a> (c) 2017 Red Hat inc.
+ * <p>
+ * The discovered method or constructor is turned into a {@link MethodHandle} once, so a conversion is a direct
+ * call instead of a reflective invocation.
  */
 public class ImplicitConverters {
 
+    private static final MethodType CONVERT_TYPE = MethodType.methodType(Object.class, String.class);
+
     private ImplicitConverters() {
     }
 
@@ -64,8 +72,9 @@ public class ImplicitConverters {
             if (!isAccessible(declaredConstructor)) {
                 declaredConstructor.setAccessible(true);
             }
-            return new ConstructorConverter<>(declaredConstructor);
-        } catch (NoSuchMethodException e) {
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(declaredConstructor).asType(CONVERT_TYPE);
+            return new ConstructorConverter<>(declaredConstructor, handle);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             return null;
         }
     }
@@ -84,8 +93,9 @@ public class ImplicitConverters {
             if (!isAccessible(method)) {
                 method.setAccessible(true);
             }
-            return new StaticMethodConverter<>(clazz, method);
-        } catch (NoSuchMethodException e) {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asType(CONVERT_TYPE);
+            return new StaticMethodConverter<>(clazz, method, handle);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             return null;
         }
     }
@@ -101,11 +111,13 @@ public class ImplicitConverters {
 
         private final Class<? extends T> clazz;
         private final transient Method method;
+        private final transient MethodHandle handle;
 
-        StaticMethodConverter(Class<? extends T> clazz, Method method) {
+        StaticMethodConverter(Class<? extends T> clazz, Method method, MethodHandle handle) {
             assert clazz == method.getReturnType();
             this.clazz = clazz;
             this.method = method;
+            this.handle = handle;
         }
 
         @Override
@@ -114,9 +126,11 @@ public class ImplicitConverters {
                 return null;
             }
             try {
-                return clazz.cast(method.invoke(null, value));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new IllegalArgumentException("MPCONFIG-020: Failed to convert value with static method");
+                return clazz.cast((Object) handle.invokeExact(value));
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("MPCONFIG-020: Failed to convert value with static method", e);
             }
         }
 
@@ -144,22 +158,25 @@ public class ImplicitConverters {
 
 
         private final transient Constructor<? extends T> ctor;
+        private final transient MethodHandle handle;
 
-        public ConstructorConverter(Constructor<? extends T> ctor) {
+        public ConstructorConverter(Constructor<? extends T> ctor, MethodHandle handle) {
             this.ctor = ctor;
+            this.handle = handle;
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public T convert(String value) {
             if (value.isEmpty()) {
                 return null;
             }
             try {
-                return ctor.newInstance(value);
-            } catch (IllegalAccessException | InvocationTargetException | InstantiationException e) {
-
-                throw new IllegalArgumentException("MPCONFIG-019: Failed to create new instance from Converter constructor");
-
+                return (T) (Object) handle.invokeExact(value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("MPCONFIG-019: Failed to create new instance from Converter constructor", e);
             }
         }
 
@@ -41,6 +41,15 @@ public class CompositeNode extends Node {
         return nodes.size() == 1 && nodes.get(0).isLiteral();
     }
 
+    public boolean containsExpression() {
+        for (Node node : nodes) {
+            if (!node.isLiteral()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String evaluate(ConfigSourceInterceptorContext context) {
         StringBuilder result = new StringBuilder();
@@ -50,4 +59,16 @@ public class CompositeNode extends Node {
         return result.toString();
 
     }
+
+    @Override
+    String evaluate(ConfigSourceInterceptorContext context, ExpressionEvaluator evaluator, int depth) {
+        if (nodes.size() == 1) {
+            return nodes.get(0).evaluate(context, evaluator, depth);
+        }
+        StringBuilder result = new StringBuilder();
+        for (Node node : nodes) {
+            result.append(node.evaluate(context, evaluator, depth));
+        }
+        return result.toString();
+    }
 }
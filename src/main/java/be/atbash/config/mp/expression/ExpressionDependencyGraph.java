@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.expression;
+
+import java.util.*;
+
+/**
+ * The references between properties through expressions. For a property with the value {@code ${host}:${port}},
+ * the graph has the dependencies {@code host} and {@code port}, and the property is a dependent of {@code host} and
+ * of {@code port}.
+ * <p>
+ * The graph can be read and changed concurrently. A copy that can't be changed is available through
+ * {@link #unmodifiableCopy()}.
+ */
+public class ExpressionDependencyGraph {
+
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private final boolean modifiable;
+
+    public ExpressionDependencyGraph() {
+        this(true);
+    }
+
+    private ExpressionDependencyGraph(boolean modifiable) {
+        this.modifiable = modifiable;
+    }
+
+    public synchronized void addDependencies(String name, Set<String> references) {
+        checkModifiable();
+        if (references.isEmpty()) {
+            return;
+        }
+        dependencies.computeIfAbsent(name, k -> new LinkedHashSet<>()).addAll(references);
+        for (String reference : references) {
+            dependents.computeIfAbsent(reference, k -> new LinkedHashSet<>()).add(name);
+        }
+    }
+
+    /**
+     * Replaces the references of the property, as its value has changed.
+     *
+     * @param name       The name of the property.
+     * @param references The names of the properties that are now referenced by the expression in the value.
+     */
+    public synchronized void setDependencies(String name, Set<String> references) {
+        checkModifiable();
+        Set<String> previous = dependencies.remove(name);
+        if (previous != null) {
+            for (String reference : previous) {
+                Set<String> referenceDependents = dependents.get(reference);
+                referenceDependents.remove(name);
+                if (referenceDependents.isEmpty()) {
+                    dependents.remove(reference);
+                }
+            }
+        }
+        addDependencies(name, references);
+    }
+
+    /**
+     * Returns the properties that are directly referenced by the expression in the value of the property.
+     *
+     * @param name The name of the property.
+     * @return The names of the referenced properties, empty if the property has no expression.
+     */
+    public synchronized Set<String> getDependencies(String name) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(dependencies.getOrDefault(name, Collections.emptySet())));
+    }
+
+    /**
+     * Returns all properties which value depends on the property, directly or through other properties.
+     *
+     * @param name The name of the property.
+     * @return The names of the dependent properties, not including the property itself.
+     */
+    public synchronized Set<String> getDependents(String name) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> toProcess = new ArrayDeque<>(dependents.getOrDefault(name, Collections.emptySet()));
+        while (!toProcess.isEmpty()) {
+            String dependent = toProcess.poll();
+            if (result.add(dependent)) {
+                toProcess.addAll(dependents.getOrDefault(dependent, Collections.emptySet()));
+            }
+        }
+        result.remove(name);  // Only when there is a loop.
+        return result;
+    }
+
+    public synchronized boolean isEmpty() {
+        return dependencies.isEmpty();
+    }
+
+    /**
+     * Returns a copy of the graph as it is now. Changing the copy results in an
+     * {@link UnsupportedOperationException}.
+     */
+    public synchronized ExpressionDependencyGraph unmodifiableCopy() {
+        ExpressionDependencyGraph result = new ExpressionDependencyGraph(false);
+        dependencies.forEach((name, references) -> result.dependencies.put(name, new LinkedHashSet<>(references)));
+        dependents.forEach((name, references) -> result.dependents.put(name, new LinkedHashSet<>(references)));
+        return result;
+    }
+
+    private void checkModifiable() {
+        if (!modifiable) {
+            throw new UnsupportedOperationException("The ExpressionDependencyGraph can't be changed");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.expression;
+
+import be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptorContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the expressions within a value in a single recursive pass. Expressions found in the values of the
+ * referenced properties are evaluated immediately, instead of expanding the value and parsing the result again.
+ * <p>
+ * The parsed {@link CompositeNode}s are kept per value so that a value is only parsed once.
+ */
+public class ExpressionEvaluator {
+
+    public static final int MAX_DEPTH = 32;
+
+    // Values of dynamic ConfigSources can be different on each read, don't let the cache grow without limit.
+    private static final int MAX_CACHED_EXPRESSIONS = 1024;
+
+    private final Map<String, CompositeNode> parsedExpressions = new ConcurrentHashMap<>();
+
+    /**
+     * Parses the value, or returns the result of a previous parse of the same value.
+     *
+     * @param text The value to parse
+     * @return The parsed expression.
+     */
+    public CompositeNode parse(String text) {
+        CompositeNode result = parsedExpressions.get(text);
+        if (result == null) {
+            result = Expressions.parseExpression(text);
+            if (parsedExpressions.size() < MAX_CACHED_EXPRESSIONS) {
+                parsedExpressions.putIfAbsent(text, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates all expressions within the value, including those within the values of the referenced properties.
+     * The escape characters are not removed.
+     *
+     * @param name    The name of the property, used in the error message.
+     * @param value   The value that can contain expressions.
+     * @param context The context used to retrieve the referenced properties.
+     * @return The value with all expressions replaced.
+     * @throws IllegalArgumentException when the expressions are nested too deep, most likely due to a loop.
+     */
+    public String evaluate(String name, String value, ConfigSourceInterceptorContext context) {
+        try {
+            return evaluate(value, context, 0);
+        } catch (DepthExceededException e) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-035: Recursive expression expansion is too deep for '%s'", name));
+        }
+    }
+
+    String evaluate(String value, ConfigSourceInterceptorContext context, int depth) {
+        if (value == null || value.indexOf('$') == -1) {
+            return value;
+        }
+        CompositeNode compositeNode = parse(value);
+        if (!compositeNode.containsExpression()) {
+            return value;
+        }
+        if (depth + 1 >= MAX_DEPTH) {
+            throw DepthExceededException.INSTANCE;
+        }
+        return compositeNode.evaluate(context, this, depth + 1);
+    }
+
+    private static final class DepthExceededException extends RuntimeException {
+        private static final long serialVersionUID = 3185804204668404614L;
+
+        private static final DepthExceededException INSTANCE = new DepthExceededException();
+
+        private DepthExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
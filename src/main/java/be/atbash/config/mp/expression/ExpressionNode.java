@@ -70,6 +70,16 @@ public class ExpressionNode extends Node {
 
     }
 
+    @Override
+    String evaluate(ConfigSourceInterceptorContext context, ExpressionEvaluator evaluator, int depth) {
+        String keyValue = key.evaluate(context, evaluator, depth);
+        ConfigValue configValue = context.proceed(keyValue);
+        if (configValue == null) {
+            return defaultValue.evaluate(context, evaluator, depth);
+        }
+        return evaluator.evaluate(configValue.getRawValue(), context, depth);
+    }
+
     private String resolve(String key, CompositeNode defaultValue, ConfigSourceInterceptorContext context) {
         ConfigValue configValue = context.proceed(key);
         if (configValue == null) {
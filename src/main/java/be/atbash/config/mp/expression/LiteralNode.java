@@ -34,7 +34,15 @@ public class LiteralNode extends Node {
         return literalValue;
     }
 
+    @Override
+    String evaluate(ConfigSourceInterceptorContext context, ExpressionEvaluator evaluator, int depth) {
+        return literalValue;
+    }
+
     public static String unescape(String literalValue) {
+        if (literalValue.indexOf('\\') == -1) {
+            return literalValue;
+        }
         StringBuilder result = new StringBuilder();
         char[] chars = literalValue.toCharArray();
         for (int i = 0; i < chars.length; i++) {
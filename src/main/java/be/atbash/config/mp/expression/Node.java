@@ -21,6 +21,11 @@ public abstract class Node {
 
     public abstract String evaluate(ConfigSourceInterceptorContext config);
 
+    /**
+     * Evaluates the node, expressions within the values of referenced properties are evaluated as well.
+     */
+    abstract String evaluate(ConfigSourceInterceptorContext context, ExpressionEvaluator evaluator, int depth);
+
     public boolean isLiteral() {
         return this instanceof LiteralNode;
     }
@@ -15,6 +15,7 @@
  */
 package be.atbash.config.mp.sources;
 
+import be.atbash.config.mp.util.ExecutorUtil;
 import be.atbash.util.resource.ResourceUtil;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.slf4j.Logger;
@@ -30,6 +31,8 @@ import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * This {@link AbstractLocationConfigSourceLoader} loads {@link ConfigSource}s from a list of specific
@@ -59,6 +62,9 @@ public abstract class AbstractLocationConfigSourceLoader {
 
     private final ResourceUtil resourceUtil = ResourceUtil.getInstance();
 
+    // Avoids opening the profile resources that don't exist.
+    private final ResourceExistence resourceExistence = ResourceExistence.getInstance();
+
     /**
      * Loads a {@link ConfigSource} from an {@link URL}. Implementations must construct the {@link ConfigSource} to
      * load.
@@ -71,21 +77,43 @@ public abstract class AbstractLocationConfigSourceLoader {
     protected abstract ConfigSource loadConfigSource(URL url, int ordinal) throws IOException;
 
     protected List<ConfigSource> loadConfigSources(String[] locations, int ordinal) {
+        return loadConfigSources(locations, ordinal, null);
+    }
+
+    /**
+     * Loads the {@link ConfigSource}s from the locations, the resources are read concurrently on the executor when
+     * one is specified. The order of the result is the same as when the resources are read one after the other.
+     *
+     * @param locations the locations to load the {@link ConfigSource}s from.
+     * @param ordinal   the ordinal of the {@link ConfigSource}s.
+     * @param executor  the {@link Executor} to read the resources on, or null to read them on the calling thread.
+     * @return the loaded {@link ConfigSource}s.
+     */
+    protected List<ConfigSource> loadConfigSources(String[] locations, int ordinal, Executor executor) {
         if (locations == null || locations.length == 0) {
             return Collections.emptyList();
         }
 
-        List<ConfigSource> configSources = new ArrayList<>();
+        List<Supplier<List<ConfigSource>>> tasks = new ArrayList<>();
         for (String location : locations) {
             List<URI> resources = resourceUtil.getResources(location);
             if (!ConfigSources.META_INF_MICROPROFILE_CONFIG_PROPERTIES.equals(location) && resources.isEmpty()) {
                 LOGGER.warn(String.format("MPCONFIG-1005: Could not find resources for %s", location));
             }
             for (URI resource : resources) {
-                ConfigSource mainSource = addConfigSource(resource, ordinal, configSources);
-                configSources.addAll(tryProfiles(resource, mainSource));
+                tasks.add(() -> {
+                    List<ConfigSource> resourceSources = new ArrayList<>();
+                    ConfigSource mainSource = addConfigSource(resource, ordinal, resourceSources);
+                    resourceSources.addAll(tryProfiles(resource, mainSource));
+                    return resourceSources;
+                });
             }
         }
+
+        List<ConfigSource> configSources = new ArrayList<>();
+        for (List<ConfigSource> resourceSources : ExecutorUtil.invokeInOrder(tasks, executor)) {
+            configSources.addAll(resourceSources);
+        }
         return configSources;
     }
 
@@ -96,7 +124,9 @@ public abstract class AbstractLocationConfigSourceLoader {
             for (int i = profiles.size() - 1; i >= 0; i--) {
                 int ordinal = mainSource.getOrdinal() + profiles.size() - i;
                 URI profileUri = addProfileName(uri, profiles.get(i));
-                addProfileConfigSource(toURL(profileUri), ordinal, profileSources);
+                if (resourceExistence.mayExist(profileUri)) {
+                    addProfileConfigSource(toURL(profileUri), ordinal, profileSources);
+                }
             }
             return profileSources;
         }));
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.util.StringInterner;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A {@link StaticConfigSource} reading a binary snapshot written by {@link BinaryConfigSourceWriter}. The file is
+ * mapped into memory once and a value is found by a binary search on the sorted keys, so no text is parsed when the
+ * source is created.
+ * <p>
+ * The layout of the file (all numbers are big endian ints):
+ * <pre>
+ * magic, version, ordinal, entry count, string count
+ * string offsets (string count + 1), relative to the start of the string data
+ * key string index (entry count), sorted on the UTF-8 bytes of the key
+ * value string index (entry count)
+ * string data, UTF-8 encoded strings, each distinct string only once
+ * </pre>
+ */
+public class BinaryConfigSource extends AbstractConfigSource implements StaticConfigSource {
+
+    private static final long serialVersionUID = 2815547023165720432L;
+
+    static final int MAGIC = 0x41434253;  // ACBS
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private static final String NAME_PREFIX = "BinaryConfigSource[source=";
+
+    private final transient ByteBuffer buffer;
+    private final int entryCount;
+    private final int stringOffsetsStart;
+    private final int keysStart;
+    private final int valuesStart;
+    private final int stringDataStart;
+
+    private transient volatile Map<String, String> properties;
+
+    /**
+     * @param url location of the snapshot, must be a file URL.
+     * @throws IOException if an error occurred when reading the file or the file is not a snapshot.
+     */
+    public BinaryConfigSource(URL url) throws IOException {
+        this(toPath(url));
+    }
+
+    /**
+     * @param file the snapshot file.
+     * @throws IOException if an error occurred when reading the file or the file is not a snapshot.
+     */
+    public BinaryConfigSource(Path file) throws IOException {
+        this(file, map(file));
+    }
+
+    private BinaryConfigSource(Path file, ByteBuffer buffer) throws IOException {
+        super(NAME_PREFIX + file.toString() + "]", readHeader(file, buffer));
+        this.buffer = buffer;
+        this.entryCount = buffer.getInt(3 * Integer.BYTES);
+        int stringCount = buffer.getInt(4 * Integer.BYTES);
+        this.stringOffsetsStart = HEADER_SIZE;
+        this.keysStart = stringOffsetsStart + (stringCount + 1) * Integer.BYTES;
+        this.valuesStart = keysStart + entryCount * Integer.BYTES;
+        this.stringDataStart = valuesStart + entryCount * Integer.BYTES;
+        if (stringDataStart + buffer.getInt(stringOffsetsStart + stringCount * Integer.BYTES) != buffer.limit()) {
+            throw new IOException(String.format("MPCONFIG-1015: The file %s is not a valid binary config snapshot", file));
+        }
+    }
+
+    private static Path toPath(URL url) throws IOException {
+        if (!"file".equals(url.getProtocol())) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1016: Binary config snapshots must be files, found %s", url));
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static int readHeader(Path file, ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(String.format("MPCONFIG-1015: The file %s is not a valid binary config snapshot", file));
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException(String.format("MPCONFIG-1015: The file %s has an unsupported binary config snapshot version %s", file, buffer.getInt(Integer.BYTES)));
+        }
+        return buffer.getInt(2 * Integer.BYTES);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        Map<String, String> result = properties;
+        if (result == null) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < entryCount; i++) {
+                values.put(StringInterner.intern(getString(buffer.getInt(keysStart + i * Integer.BYTES)))
+                        , StringInterner.intern(getString(buffer.getInt(valuesStart + i * Integer.BYTES))));
+            }
+            result = Collections.unmodifiableMap(values);
+            properties = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return getProperties().keySet();
+    }
+
+    @Override
+    public String getValue(String propertyName) {
+        if (propertyName == null) {
+            return null;
+        }
+        byte[] name = propertyName.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = compareString(buffer.getInt(keysStart + middle * Integer.BYTES), name);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                return getString(buffer.getInt(valuesStart + middle * Integer.BYTES));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compares the UTF-8 bytes of the string in the table with the name, as unsigned bytes.
+     */
+    private int compareString(int index, byte[] name) {
+        int start = stringDataStart + buffer.getInt(stringOffsetsStart + index * Integer.BYTES);
+        int length = stringDataStart + buffer.getInt(stringOffsetsStart + (index + 1) * Integer.BYTES) - start;
+        int common = Math.min(length, name.length);
+        for (int i = 0; i < common; i++) {
+            int compare = Integer.compare(buffer.get(start + i) & 0xFF, name[i] & 0xFF);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Integer.compare(length, name.length);
+    }
+
+    private String getString(int index) {
+        int start = stringDataStart + buffer.getInt(stringOffsetsStart + index * Integer.BYTES);
+        int end = stringDataStart + buffer.getInt(stringOffsetsStart + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        // Relative get on a duplicate, the shared buffer is only used with absolute positions.
+        buffer.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Writes the merged values of {@link ConfigSource}s as a binary snapshot for {@link BinaryConfigSource}. Intended to
+ * be run at build time, for the sources that don't change at runtime, so that they are replaced by a single
+ * file that doesn't need to be parsed.
+ * <p>
+ * The value of a property is the one of the source with the highest ordinal, as the Config would see it without
+ * interceptors (profiles and expressions are resolved at runtime). For sources with the same ordinal, the source that
+ * is given first wins. The {@link ConfigSource#CONFIG_ORDINAL} property
+ * is not included, the snapshot has its own ordinal.
+ * <p>
+ * From the command line: {@code BinaryConfigSourceWriter <target file> <ordinal> <properties URL or file>...}
+ */
+public final class BinaryConfigSourceWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryConfigSourceWriter.class);
+
+    private BinaryConfigSourceWriter() {
+    }
+
+    /**
+     * Writes the snapshot of the merged values of the sources.
+     *
+     * @param sources the sources to include.
+     * @param ordinal the ordinal of the snapshot source.
+     * @param target  the snapshot file.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(Collection<? extends ConfigSource> sources, int ordinal, Path target) throws IOException {
+        write(merge(sources), ordinal, target);
+    }
+
+    static Map<String, String> merge(Collection<? extends ConfigSource> sources) {
+        List<ConfigSource> sorted = new ArrayList<>(sources);
+        // Highest ordinal first. The sort is stable, so for the same ordinal the first given source wins, as the Config
+        // does for the first loaded source.
+        sorted.sort(Comparator.comparingInt(ConfigSource::getOrdinal).reversed());
+        Map<String, String> result = new HashMap<>();
+        for (ConfigSource source : sorted) {
+            for (String name : source.getPropertyNames()) {
+                if (!result.containsKey(name) && !ConfigSource.CONFIG_ORDINAL.equals(name)) {
+                    String value = source.getValue(name);
+                    if (value != null) {
+                        result.put(name, value);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the snapshot of the properties.
+     *
+     * @param properties the properties to include.
+     * @param ordinal    the ordinal of the snapshot source.
+     * @param target     the snapshot file.
+     * @throws IOException if the file can't be written.
+     */
+    public static void write(Map<String, String> properties, int ordinal, Path target) throws IOException {
+        // Sorted on the UTF-8 bytes, the order used by the binary search.
+        List<Map.Entry<String, String>> entries = new ArrayList<>(properties.entrySet());
+        entries.sort((e1, e2) -> Arrays.compareUnsigned(e1.getKey().getBytes(StandardCharsets.UTF_8), e2.getKey().getBytes(StandardCharsets.UTF_8)));
+
+        // Each distinct string once, keys and values share the table.
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] keyIndexes = new int[entries.size()];
+        int[] valueIndexes = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keyIndexes[i] = intern(entries.get(i).getKey(), stringIndexes, strings);
+            valueIndexes[i] = intern(entries.get(i).getValue(), stringIndexes, strings);
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(BinaryConfigSource.MAGIC);
+            output.writeInt(BinaryConfigSource.VERSION);
+            output.writeInt(ordinal);
+            output.writeInt(entries.size());
+            output.writeInt(strings.size());
+            int offset = 0;
+            output.writeInt(offset);
+            for (byte[] string : strings) {
+                offset += string.length;
+                output.writeInt(offset);
+            }
+            for (int keyIndex : keyIndexes) {
+                output.writeInt(keyIndex);
+            }
+            for (int valueIndex : valueIndexes) {
+                output.writeInt(valueIndex);
+            }
+            for (byte[] string : strings) {
+                output.write(string);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int intern(String string, Map<String, Integer> stringIndexes, List<byte[]> strings) {
+        return stringIndexes.computeIfAbsent(string, k -> {
+            strings.add(k.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("MPCONFIG-1019: Usage: BinaryConfigSourceWriter <target file> <ordinal> <properties URL or file>...");
+        }
+        int ordinal = Integer.parseInt(args[1]);
+        List<ConfigSource> sources = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            URL url = args[i].contains(":/") ? new URL(args[i]) : Paths.get(args[i]).toUri().toURL();
+            sources.add(new PropertiesConfigSource(url, ConfigSource.DEFAULT_ORDINAL));
+        }
+        Path target = Paths.get(args[0]);
+        write(sources, ordinal, target);
+        LOGGER.info(String.format("Written %s with the values of %s sources", target, sources.size()));
+    }
+}
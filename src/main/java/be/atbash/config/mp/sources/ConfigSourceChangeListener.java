@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+import java.util.Set;
+
+/**
+ * Receives the changes of an {@link ObservableConfigSource}. The notification has 2 phases so that the listener can
+ * determine the values before and after the change.
+ */
+@FunctionalInterface
+public interface ConfigSourceChangeListener {
+
+    /**
+     * Called before the new values of the source are visible.
+     *
+     * @param source       The source that changes.
+     * @param changedNames The names, as known by the source, that are added, removed or have another value.
+     * @return The callback that the source calls once the new values are visible.
+     */
+    Runnable beforeChange(ConfigSource source, Set<String> changedNames);
+}
@@ -16,15 +16,28 @@
 package be.atbash.config.mp.sources;
 
 import be.atbash.config.mp.AtbashConfigBuilder;
+import be.atbash.config.mp.ConfigChangeEvent;
+import be.atbash.config.mp.ConfigChangeListener;
 import be.atbash.config.mp.ConfigValueImpl;
+import be.atbash.config.mp.expression.ExpressionDependencyGraph;
 import be.atbash.config.mp.sources.interceptor.*;
 import be.atbash.config.mp.util.AnnotationUtil;
+import be.atbash.config.mp.util.ExecutorUtil;
 import org.eclipse.microprofile.config.ConfigValue;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.eclipse.microprofile.config.spi.ConfigSourceProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptorFactory.DEFAULT_PRIORITY;
 
@@ -34,11 +47,31 @@ import static be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptorFac
  */
 public class ConfigSources implements Serializable {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSources.class);
+
     public static final String META_INF_MICROPROFILE_CONFIG_PROPERTIES = "META-INF/microprofile-config.properties";
     public static final String ATBASH_CONFIG_LOCATIONS = "atbash.config.locations";
 
+    private static final int MAX_SPINS = 100;
+
     private final List<ConfigSource> sources;
     private final ConfigSourceInterceptorContext interceptorChain;
+    private final transient ExpressionConfigSourceInterceptor expressionInterceptor;
+    private final transient ConfigSourceInterceptorContext expressionContext;
+    private final transient List<String> profiles;
+
+    private final transient List<ConfigChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final transient List<Consumer<Set<String>>> invalidationListeners = new CopyOnWriteArrayList<>();
+    private final transient AtomicLong generation = new AtomicLong();
+    private final transient AtomicInteger changesInProgress = new AtomicInteger();
+    // The threads executing a change with the number of their changes in progress.
+    private final transient Map<Thread, Integer> changingThreads = new ConcurrentHashMap<>();
+    // Notified when a change is completed.
+    private final transient Object changeCompleted = new Object();
+    private final boolean generationTracked;
+    // The references between the properties for determining the dependents of a changed property, guarded by itself.
+    private final transient Object changeLock = new Object();
+    private transient ExpressionDependencyGraph changeDependencyGraph;
 
     /**
      * Builds a representation of Config Sources, Interceptors and the Interceptor chain to be used in Config. Note
@@ -61,10 +94,14 @@ public class ConfigSources implements Serializable {
 
         // 2. An interceptor that is capable of retrieving the value from a ConfigSource.
 
-        List<ConfigSourceWithPriority> sourcesWithPriority = mapSources(sourcesFromBuilder);
+        List<ConfigSourceWithPriority> sourcesWithPriority = mapSources(sourcesFromBuilder, 0);
         // ConfigSource with high priority should be considered first.
         sourcesWithPriority.sort(Collections.reverseOrder());
-        current = new AtbashConfigSourceInterceptorContext(new ConfigValueRetrievalInterceptor(sourcesWithPriority), current);
+        // With late sources, the initial chain is only used for configuring them and the table of the static
+        // sources is built for the final chain only.
+        boolean hasLateSources = sourcesFromBuilder.stream().anyMatch(s -> s instanceof ConfigurableConfigSource);
+        ConfigValueRetrievalInterceptor initialRetrievalInterceptor = new ConfigValueRetrievalInterceptor(sourcesWithPriority, !hasLateSources);
+        current = new AtbashConfigSourceInterceptorContext(initialRetrievalInterceptor, current);
 
         List<ConfigSourceInterceptor> interceptors = new ArrayList<>();  // We need this for the next step, retrieval of profile.
 
@@ -81,20 +118,66 @@ public class ConfigSources implements Serializable {
 
         // Rebuild the chain with the late sources and new instances of the interceptors
         // The new instance will ensure that we get rid of references to factories and other stuff and keep only
-        // the resolved final source or interceptor to use.
-        current = new AtbashConfigSourceInterceptorContext(ConfigSourceInterceptor.EMPTY, null);
-        current = new AtbashConfigSourceInterceptorContext(new ConfigValueRetrievalInterceptor(sourcesWithPriorities), current);
-        for (ConfigSourceInterceptor interceptor : interceptors) {
-            current = new AtbashConfigSourceInterceptorContext(interceptor, current);
+        // the resolved final source or interceptor to use. Without late sources, the sources are the same.
+        ConfigValueRetrievalInterceptor retrievalInterceptor = hasLateSources
+                ? new ConfigValueRetrievalInterceptor(sourcesWithPriorities) : initialRetrievalInterceptor;
+        List<ConfigSource> configSources = getSources(sourcesWithPriorities);
+        ExpressionConfigSourceInterceptor expressionInterceptor = null;
+        ConfigSourceInterceptorContext expressionContext = null;
+        ConfigSourceInterceptorContext chain;
+        if (FusedInterceptorChain.supports(interceptors)) {
+            // Only the built-in interceptors, use the specialized chain.
+            FusedInterceptorChain fusedChain = FusedInterceptorChain.create(retrievalInterceptor, interceptors);
+            for (ConfigSourceInterceptor interceptor : interceptors) {
+                if (interceptor instanceof ExpressionConfigSourceInterceptor) {
+                    expressionInterceptor = (ExpressionConfigSourceInterceptor) interceptor;
+                    expressionContext = fusedChain.getExpressionContext();
+                }
+            }
+            // Adds the PropertyNamesConfigSourceInterceptor
+            chain = fusedChain.withPropertyNames(createPropertyNamesInterceptor(sourcesFromBuilder, fusedChain));
+        } else {
+            current = new AtbashConfigSourceInterceptorContext(ConfigSourceInterceptor.EMPTY, null);
+            current = new AtbashConfigSourceInterceptorContext(retrievalInterceptor, current);
+            for (ConfigSourceInterceptor interceptor : interceptors) {
+                if (interceptor instanceof ExpressionConfigSourceInterceptor) {
+                    expressionInterceptor = (ExpressionConfigSourceInterceptor) interceptor;
+                    expressionContext = current;
+                }
+                current = new AtbashConfigSourceInterceptorContext(interceptor, current);
+            }
+
+            // Adds the PropertyNamesConfigSourceInterceptor
+            ConfigSourceInterceptor propertyNamesInterceptor = createPropertyNamesInterceptor(sourcesFromBuilder, current);
+            chain = new AtbashConfigSourceInterceptorContext(propertyNamesInterceptor, current);
         }
 
-        // Adds the PropertyNamesConfigSourceInterceptor
-        List<ConfigSource> configSources = getSources(sourcesWithPriorities);
-        ConfigSourceInterceptor propertyNamesInterceptor = createPropertyNamesInterceptor(sourcesFromBuilder, current);
-        current = new AtbashConfigSourceInterceptorContext(propertyNamesInterceptor, current);
+        if (builder.isPreResolveExpressions() && expressionInterceptor != null) {
+            Set<String> staticSourceNames = getStaticSourceNames(configSources);
+            if (staticSourceNames.isEmpty()) {
+                LOGGER.warn("MPCONFIG-1022: No expressions are pre-resolved, no static ConfigSource has a higher ordinal than the dynamic ConfigSources (like the system properties)");
+            }
+            expressionInterceptor.preResolve(expressionContext, staticSourceNames);
+        }
+
+        if (builder.isFrozen()) {
+            chain = new AtbashConfigSourceInterceptorContext(new FrozenConfigSourceInterceptor(chain), chain);
+        }
 
         this.sources = configSources;
-        this.interceptorChain = current;
+        this.interceptorChain = chain;
+        this.expressionInterceptor = expressionInterceptor;
+        this.expressionContext = expressionContext;
+        this.profiles = profiles;
+        // Also for a frozen Config, as the names that are not frozen are still retrieved from the sources.
+        this.generationTracked = configSources.stream()
+                .allMatch(s -> s instanceof StaticConfigSource || s instanceof ObservableConfigSource);
+
+        for (ConfigSource configSource : configSources) {
+            if (configSource instanceof ObservableConfigSource) {
+                ((ObservableConfigSource) configSource).addChangeListener(this::beforeSourceChange);
+            }
+        }
     }
 
     public List<ConfigSource> getSources() {
@@ -105,6 +188,256 @@ public class ConfigSources implements Serializable {
         return interceptorChain;
     }
 
+    /**
+     * The generation of the values, increased after every change of an {@link ObservableConfigSource}. Values
+     * resolved through the interceptor chain while the generation and {@link #isChangeInProgress()} didn't change,
+     * belong to the same generation.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Increases the generation for changes that are not notified by an {@link ObservableConfigSource}, like an
+     * explicit invalidation of the cached values.
+     */
+    public void increaseGeneration() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Indicates if every change of a value results in a new generation, that is when all sources are
+     * {@link StaticConfigSource}s or {@link ObservableConfigSource}s. Otherwise, a value
+     * can change without a new generation and values can't be cached based on the generation.
+     */
+    public boolean isGenerationTracked() {
+        return generationTracked;
+    }
+
+    /**
+     * Is an {@link ObservableConfigSource} currently changing its values. The generation is increased when the
+     * change is completed.
+     */
+    public boolean isChangeInProgress() {
+        return changesInProgress.get() > 0;
+    }
+
+    /**
+     * Waits until no {@link ObservableConfigSource} is changing its values. Spins briefly, as a change is normally
+     * completed quickly, and then waits until a change is completed.
+     *
+     * @throws IllegalStateException when called by a thread that is executing a change, like a listener of another
+     *                               Config that shares the source, as that change can't complete while waiting.
+     */
+    public void awaitChangesCompleted() {
+        if (!isChangeInProgress()) {
+            return;
+        }
+        if (changingThreads.containsKey(Thread.currentThread())) {
+            throw new IllegalStateException("MPCONFIG-1020: Can't wait for the completion of a configuration change by the thread executing that change");
+        }
+        for (int i = 0; i < MAX_SPINS && isChangeInProgress(); i++) {
+            Thread.onSpinWait();
+        }
+        synchronized (changeCompleted) {
+            while (isChangeInProgress()) {
+                try {
+                    changeCompleted.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("MPCONFIG-1021: Interrupted while waiting for the completion of a configuration change", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the references between properties through expressions. Only available when the expressions are
+     * resolved when the Config is built ({@link AtbashConfigBuilder#withPreResolvedExpressions()}), otherwise the
+     * graph is empty.
+     */
+    public ExpressionDependencyGraph getExpressionDependencyGraph() {
+        return expressionInterceptor == null ? new ExpressionDependencyGraph() : expressionInterceptor.getDependencyGraph();
+    }
+
+    /**
+     * Removes the resolved expression values of the property and of all properties that depend on it.
+     */
+    public void invalidateExpressions(String name) {
+        if (expressionInterceptor != null) {
+            expressionInterceptor.invalidate(name);
+        }
+    }
+
+    public void invalidateExpressions() {
+        if (expressionInterceptor != null) {
+            expressionInterceptor.invalidateAll();
+        }
+    }
+
+    /**
+     * Registers a listener that receives the properties of which the effective value changed, when an
+     * {@link ObservableConfigSource} changes.
+     */
+    public void addChangeListener(ConfigChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ConfigChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Registers a listener for removing cached information. It receives the names of the properties of which the
+     * effective value changed, before the new generation is visible and before the {@link ConfigChangeListener}s
+     * are notified.
+     */
+    public void addInvalidationListener(Consumer<Set<String>> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private Runnable beforeSourceChange(ConfigSource source, Set<String> changedNames) {
+        Thread changingThread = Thread.currentThread();
+        changesInProgress.incrementAndGet();
+        changingThreads.merge(changingThread, 1, Integer::sum);
+        Runnable afterChange;
+        try {
+            afterChange = prepareChange(changedNames, changingThread);
+        } catch (RuntimeException e) {
+            endChange(changingThread);
+            throw e;
+        }
+        return afterChange;
+    }
+
+    private Runnable prepareChange(Set<String> changedNames, Thread changingThread) {
+        Set<String> names = getEffectiveNames(changedNames);
+        if (changeListeners.isEmpty() && invalidationListeners.isEmpty()) {
+            return () -> {
+                try {
+                    names.forEach(this::invalidateExpressions);
+                } finally {
+                    completeChange(changingThread);
+                }
+            };
+        }
+        Set<String> affectedNames = getAffectedNames(names);
+        Map<String, ConfigValue> oldValues = getValues(affectedNames);
+        return () -> {
+            Set<String> effectiveChanges = new LinkedHashSet<>();
+            Map<String, ConfigValue> newValues;
+            try {
+                names.forEach(this::invalidateExpressions);
+                updateDependencies(names);
+
+                newValues = getValues(affectedNames);
+                for (String name : affectedNames) {
+                    if (isChanged(oldValues.get(name), newValues.get(name))) {
+                        effectiveChanges.add(name);
+                    }
+                }
+                if (!effectiveChanges.isEmpty()) {
+                    invalidationListeners.forEach(l -> l.accept(effectiveChanges));
+                }
+            } finally {
+                completeChange(changingThread);
+            }
+            if (!effectiveChanges.isEmpty()) {
+                notifyListeners(new ConfigChangeEvent(effectiveChanges, oldValues, newValues));
+            }
+        };
+    }
+
+    private void completeChange(Thread changingThread) {
+        generation.incrementAndGet();
+        endChange(changingThread);
+    }
+
+    private void endChange(Thread changingThread) {
+        changesInProgress.decrementAndGet();
+        changingThreads.computeIfPresent(changingThread, (thread, count) -> count == 1 ? null : count - 1);
+        synchronized (changeCompleted) {
+            changeCompleted.notifyAll();
+        }
+    }
+
+    /**
+     * The names of the properties as they are seen through the Config. A name for an active profile is seen as the
+     * name without the profile, a name for another profile has no effect.
+     */
+    private Set<String> getEffectiveNames(Set<String> changedNames) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String name : changedNames) {
+            if (name.startsWith("%")) {
+                int dot = name.indexOf('.');
+                if (dot > 1 && profiles.contains(name.substring(1, dot))) {
+                    result.add(name.substring(dot + 1));
+                }
+            } else {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private Set<String> getAffectedNames(Set<String> names) {
+        Set<String> result = new LinkedHashSet<>(names);
+        if (expressionInterceptor != null) {
+            synchronized (changeLock) {
+                if (changeDependencyGraph == null) {
+                    changeDependencyGraph = expressionInterceptor.buildDependencyGraph(expressionContext);
+                }
+                for (String name : names) {
+                    result.addAll(changeDependencyGraph.getDependents(name));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void updateDependencies(Set<String> names) {
+        if (expressionInterceptor != null) {
+            synchronized (changeLock) {
+                for (String name : names) {
+                    changeDependencyGraph.setDependencies(name, expressionInterceptor.getReferences(expressionContext, name));
+                }
+            }
+        }
+    }
+
+    private Map<String, ConfigValue> getValues(Set<String> names) {
+        Map<String, ConfigValue> result = new HashMap<>();
+        for (String name : names) {
+            try {
+                ConfigValue configValue = interceptorChain.proceed(name);
+                if (configValue != null) {
+                    result.put(name, configValue);
+                }
+            } catch (RuntimeException e) {
+                // Can't be resolved (like an expression referencing a missing property), seen as no value.
+            }
+        }
+        return result;
+    }
+
+    private static boolean isChanged(ConfigValue oldValue, ConfigValue newValue) {
+        if (oldValue == null || newValue == null) {
+            return oldValue != newValue;
+        }
+        return !Objects.equals(oldValue.getValue(), newValue.getValue())
+                || !Objects.equals(oldValue.getSourceName(), newValue.getSourceName());
+    }
+
+    private void notifyListeners(ConfigChangeEvent event) {
+        for (ConfigChangeListener listener : changeListeners) {
+            try {
+                listener.onChange(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn(String.format("MPCONFIG-1008: Failure in ConfigChangeListener %s : %s", listener.getClass().getName(), e.getLocalizedMessage()));
+            }
+        }
+    }
+
     private List<ConfigSource> buildSources(AtbashConfigBuilder builder) {
         // ConfigSources added to the ConfigBuilder
         List<ConfigSource> result = new ArrayList<>();
@@ -112,37 +445,43 @@ public class ConfigSources implements Serializable {
         result.addAll(builder.getSources());  // Not using ArrayList constructor as that sets the size and expansion
         //is required.
         if (builder.isAddDiscoveredSources()) {
-            result.addAll(discoverSources(builder.getClassLoader()));
+            result.addAll(discoverSources(builder.getClassLoader(), builder.getLoadExecutor()));
         }
         if (builder.isAddDefaultSources()) {
-            result.addAll(getDefaultSources(builder.getClassLoader()));
+            result.addAll(getDefaultSources(builder.getClassLoader(), builder.getLoadExecutor()));
         }
 
         return result;
     }
 
-    private List<ConfigSource> getDefaultSources(ClassLoader classLoader) {
+    private List<ConfigSource> getDefaultSources(ClassLoader classLoader, Executor executor) {
         List<ConfigSource> defaultSources = new ArrayList<>();
 
         defaultSources.add(new EnvConfigSource());
         defaultSources.add(new SysPropConfigSource());
 
-        PropertiesConfigSourceProvider configSourceProvider = new PropertiesConfigSourceProvider(META_INF_MICROPROFILE_CONFIG_PROPERTIES);
+        PropertiesConfigSourceProvider configSourceProvider = new PropertiesConfigSourceProvider(META_INF_MICROPROFILE_CONFIG_PROPERTIES, executor);
         defaultSources.addAll(configSourceProvider.getConfigSources(classLoader));
         return defaultSources;
     }
 
-    private List<ConfigSource> discoverSources(ClassLoader classLoader) {
+    private List<ConfigSource> discoverSources(ClassLoader classLoader, Executor executor) {
         List<ConfigSource> discoveredSources = new ArrayList<>();
         ServiceLoader<ConfigSource> configSourceLoader = ServiceLoader.load(ConfigSource.class);
         for (ConfigSource source : configSourceLoader) {
             discoveredSources.add(source);
         }
 
-        // load all ConfigSources from ConfigSourceProviders
+        // load all ConfigSources from ConfigSourceProviders, concurrently when an executor is defined.
+        // The providers run with the ClassLoader as context ClassLoader, also on the threads of the executor.
+        ClassLoader contextClassLoader = classLoader == null ? Thread.currentThread().getContextClassLoader() : classLoader;
+        List<Supplier<Iterable<ConfigSource>>> providerTasks = new ArrayList<>();
         ServiceLoader<ConfigSourceProvider> configSourceProviderLoader = ServiceLoader.load(ConfigSourceProvider.class);
         for (ConfigSourceProvider configSourceProvider : configSourceProviderLoader) {
-            for (ConfigSource configSource : configSourceProvider.getConfigSources(classLoader)) {
+            providerTasks.add(ExecutorUtil.withContextClassLoader(contextClassLoader, () -> configSourceProvider.getConfigSources(classLoader)));
+        }
+        for (Iterable<ConfigSource> configSources : ExecutorUtil.invokeInOrder(providerTasks, executor)) {
+            for (ConfigSource configSource : configSources) {
                 discoveredSources.add(configSource);
             }
         }
@@ -219,11 +558,14 @@ public class ConfigSources implements Serializable {
         return interceptors;
     }
 
-    private List<ConfigSourceWithPriority> mapSources(List<ConfigSource> sources) {
+    /**
+     * The load order, used when sources have the same ordinal, starts from the firstLoadOrder.
+     */
+    private List<ConfigSourceWithPriority> mapSources(List<ConfigSource> sources, int firstLoadOrder) {
         List<ConfigSourceWithPriority> sourcesWithPriority = new ArrayList<>();
         for (ConfigSource source : sources) {
             if (!(source instanceof ConfigurableConfigSource)) {
-                sourcesWithPriority.add(new ConfigSourceWithPriority(source));
+                sourcesWithPriority.add(new ConfigSourceWithPriority(source, firstLoadOrder + sourcesWithPriority.size()));
             }
         }
         return sourcesWithPriority;
@@ -242,8 +584,6 @@ public class ConfigSources implements Serializable {
             , List<ConfigSource> sources
             , List<String> profiles) {
 
-        ConfigSourceWithPriority.resetLoadPriority();
-
         List<ConfigurableConfigSource> lateSources = new ArrayList<>();
         for (ConfigSource source : sources) {
             if (source instanceof ConfigurableConfigSource) {
@@ -269,11 +609,11 @@ public class ConfigSources implements Serializable {
             });
 
             for (ConfigSource configSource : configSources) {
-                sourcesWithPriority.add(new ConfigSourceWithPriority(configSource));
+                sourcesWithPriority.add(new ConfigSourceWithPriority(configSource, sourcesWithPriority.size()));
             }
         }
 
-        sourcesWithPriority.addAll(mapSources(sources));
+        sourcesWithPriority.addAll(mapSources(sources, sourcesWithPriority.size()));
         sourcesWithPriority.sort(Collections.reverseOrder());
 
         return sourcesWithPriority;
@@ -287,7 +627,24 @@ public class ConfigSources implements Serializable {
         return Collections.unmodifiableList(configSources);
     }
 
-    private ConfigSourceInterceptor createPropertyNamesInterceptor(List<ConfigSource> sources, AtbashConfigSourceInterceptorContext current) {
+    /**
+     * The names of the {@link StaticConfigSource}s that can't be overruled by a dynamic source, that is a source that
+     * isn't static and doesn't notify its changes. The sources are ordered from the highest priority.
+     */
+    private Set<String> getStaticSourceNames(List<ConfigSource> configSources) {
+        Set<String> result = new HashSet<>();
+        for (ConfigSource configSource : configSources) {
+            if (configSource instanceof StaticConfigSource) {
+                result.add(configSource.getName());
+            } else if (!(configSource instanceof ObservableConfigSource)) {
+                // A value of this source can hide the value of all sources with a lower priority at any moment.
+                break;
+            }
+        }
+        return result;
+    }
+
+    private PropertyNamesConfigSourceInterceptor createPropertyNamesInterceptor(List<ConfigSource> sources, ConfigSourceInterceptorContext current) {
         final Set<String> properties = new HashSet<>();
         final Iterator<String> iterateNames = current.iterateNames();
         while (iterateNames.hasNext()) {
@@ -340,11 +697,17 @@ public class ConfigSources implements Serializable {
 
         private final ConfigSource source;
         private final int priority;
-        private final int loadPriority = loadPrioritySequence++;
-
-        ConfigSourceWithPriority(ConfigSource source) {
+        private final int loadPriority;
+
+        /**
+         * @param source       The ConfigSource
+         * @param loadPriority The position in the load order, when 2 sources have the same ordinal, the one loaded
+         *                     first has the highest priority.
+         */
+        ConfigSourceWithPriority(ConfigSource source, int loadPriority) {
             this.source = source;
             this.priority = source.getOrdinal();
+            this.loadPriority = loadPriority;
         }
 
         public ConfigSource getSource() {
@@ -356,12 +719,6 @@ public class ConfigSources implements Serializable {
             int res = Integer.compare(this.priority, other.priority);
             return res != 0 ? res : Integer.compare(other.loadPriority, this.loadPriority);
         }
-
-        private static int loadPrioritySequence = 0;
-
-        static void resetLoadPriority() {
-            loadPrioritySequence = 0;
-        }
     }
 }
 
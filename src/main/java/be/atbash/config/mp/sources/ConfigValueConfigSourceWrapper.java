@@ -21,29 +21,50 @@ import org.eclipse.microprofile.config.spi.ConfigSource;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Create a wrapper for {@link ConfigSource} as a  {@link ConfigValueConfigSource}.
  */
 class ConfigValueConfigSourceWrapper implements ConfigValueConfigSource {
 
+    // Limits the memory used for the values of arbitrary property names.
+    private static final int MAX_CACHED_VALUES = 10_000;
+
     private final ConfigSource configSource;
 
+    // The ConfigValues of a static source that can't list its names (like the environment variables), its values
+    // never change so they are created once. The values of a static source that lists its names are kept in the
+    // merged table of the ConfigValueRetrievalInterceptor.
+    private final Map<String, ConfigValue> configValues;
+
     private ConfigValueConfigSourceWrapper(ConfigSource configSource) {
         this.configSource = configSource;
+        boolean cached = configSource instanceof StaticConfigSource && !((StaticConfigSource) configSource).hasExactPropertyNames();
+        this.configValues = cached ? new ConcurrentHashMap<>() : null;
     }
 
     @Override
     public ConfigValue getConfigValue(String propertyName) {
+        if (configValues != null) {
+            ConfigValue configValue = configValues.get(propertyName);
+            if (configValue != null) {
+                return configValue;
+            }
+        }
         String value = configSource.getValue(propertyName);
         if (value != null) {
-            return ConfigValueImpl.builder()
+            ConfigValue configValue = ConfigValueImpl.builder()
                     .withName(propertyName)
                     .withValue(value)
                     .withRawValue(value)
                     .withConfigSourceName(getName())
                     .withConfigSourceOrdinal(getOrdinal())
                     .build();
+            if (configValues != null && configValues.size() < MAX_CACHED_VALUES) {
+                configValues.put(propertyName, configValue);
+            }
+            return configValue;
         }
 
         return null;
@@ -18,27 +18,107 @@ package be.atbash.config.mp.sources;
 import be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptor;
 import be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptorContext;
 import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
 
 import java.util.*;
 
 /**
  * This interceptor actually looks up the required information from the ConfigSource.
  * <p>
+ * The values of all {@link StaticConfigSource}s are merged, at creation time, into a single table that holds for each
+ * name the {@link ConfigValue} of the source with the highest priority. Sources like the {@link EnvConfigSource} that
+ * can't list all names they can find, contribute the values for the names listed by the other static sources. Only
+ * dynamic sources are consulted at lookup time, the ones with a higher priority than the source of the value in the
+ * table when the name is known. When the name is not within the table, the dynamic sources and the static sources
+ * that can't list all their names are consulted in order of their priority.
+ * <p>
  * Based on code from SmallRye Config.
  */
 public class ConfigValueRetrievalInterceptor implements ConfigSourceInterceptor {
 
     private final List<ConfigValueConfigSource> configSources = new ArrayList<>();
 
+    // The sources that must be consulted for a name that is not within mergedValues, in order of priority.
+    private final ConfigValueConfigSource[] uncheckedSources;
+    // The dynamic sources with their position within configSources.
+    private final ConfigValueConfigSource[] dynamicSources;
+    private final int[] dynamicSourcePositions;
+
+    private final Map<String, MergedValue> mergedValues = new HashMap<>();
+
     public ConfigValueRetrievalInterceptor(List<ConfigSources.ConfigSourceWithPriority> configSourcesWithPriorities) {
+        this(configSourcesWithPriorities, true);
+    }
+
+    /**
+     * @param mergeStaticSources When false, no table is built and all sources are consulted in order of their
+     *                           priority. For a chain that is only used for a few lookups.
+     */
+    ConfigValueRetrievalInterceptor(List<ConfigSources.ConfigSourceWithPriority> configSourcesWithPriorities, boolean mergeStaticSources) {
+        List<ConfigValueConfigSource> dynamic = new ArrayList<>();
+        List<Integer> dynamicPositions = new ArrayList<>();
+        List<Integer> nonExactPositions = new ArrayList<>();
+        List<ConfigValueConfigSource> unchecked = new ArrayList<>();
         for (ConfigSources.ConfigSourceWithPriority configSource : configSourcesWithPriorities) {
-            configSources.add(ConfigValueConfigSourceWrapper.wrap(configSource.getSource()));
+            ConfigSource source = configSource.getSource();
+            ConfigValueConfigSource wrapped = ConfigValueConfigSourceWrapper.wrap(source);
+            int position = configSources.size();
+            configSources.add(wrapped);
+            if (!mergeStaticSources) {
+                unchecked.add(wrapped);
+            } else if (!(source instanceof StaticConfigSource)) {
+                dynamic.add(wrapped);
+                dynamicPositions.add(position);
+                unchecked.add(wrapped);
+            } else if (((StaticConfigSource) source).hasExactPropertyNames()) {
+                mergeValues(wrapped, position, source.getPropertyNames());
+            } else {
+                nonExactPositions.add(position);
+                unchecked.add(wrapped);
+            }
+        }
+        // Static sources that can't list their names, can still define a value for the names we know.
+        Set<String> knownNames = new HashSet<>(mergedValues.keySet());
+        for (Integer position : nonExactPositions) {
+            mergeValues(configSources.get(position), position, knownNames);
+        }
+
+        // Arrays, the lookup doesn't allocate an Iterator.
+        uncheckedSources = unchecked.toArray(new ConfigValueConfigSource[0]);
+        dynamicSources = dynamic.toArray(new ConfigValueConfigSource[0]);
+        dynamicSourcePositions = dynamicPositions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void mergeValues(ConfigValueConfigSource source, int position, Set<String> names) {
+        for (String name : names) {
+            MergedValue current = mergedValues.get(name);
+            if (current != null && current.position < position) {
+                continue;  // Already a value from a source with higher priority.
+            }
+            ConfigValue configValue = source.getConfigValue(name);
+            if (configValue != null) {
+                mergedValues.put(name, new MergedValue(configValue, position));
+            }
         }
     }
 
     @Override
     public ConfigValue getValue(ConfigSourceInterceptorContext context, String name) {
-        for (ConfigValueConfigSource configSource : configSources) {
+        MergedValue mergedValue = mergedValues.get(name);
+        if (mergedValue == null) {
+            return getValue(uncheckedSources, name);
+        }
+        for (int i = 0; i < dynamicSources.length && dynamicSourcePositions[i] < mergedValue.position; i++) {
+            ConfigValue configValue = dynamicSources[i].getConfigValue(name);
+            if (configValue != null) {
+                return configValue;
+            }
+        }
+        return mergedValue.configValue;
+    }
+
+    private static ConfigValue getValue(ConfigValueConfigSource[] candidates, String name) {
+        for (ConfigValueConfigSource configSource : candidates) {
             ConfigValue configValue = configSource.getConfigValue(name);
 
             if (configValue != null) {
@@ -61,4 +141,13 @@ public class ConfigValueRetrievalInterceptor implements ConfigSourceInterceptor
         return names.iterator();
     }
 
+    private static final class MergedValue {
+        private final ConfigValue configValue;
+        private final int position;
+
+        MergedValue(ConfigValue configValue, int position) {
+            this.configValue = configValue;
+            this.position = position;
+        }
+    }
 }
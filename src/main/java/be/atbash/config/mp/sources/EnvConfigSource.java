@@ -16,8 +16,6 @@
 package be.atbash.config.mp.sources;
 
 
-import be.atbash.config.mp.util.StringUtil;
-
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
@@ -26,10 +24,12 @@ import java.util.Map;
 /**
  * Based on code by Jeff Mesnil (c) 2017 Red Hat inc.
  */
-public class EnvConfigSource extends MapBackedConfigSource {
+public class EnvConfigSource extends StaticMapBackedConfigSource {
 
     private static final int DEFAULT_ORDINAL = 300;
 
+    private final NameIndex nameIndex;
+
     public EnvConfigSource() {
         this(DEFAULT_ORDINAL);
     }
@@ -40,33 +40,21 @@ public class EnvConfigSource extends MapBackedConfigSource {
 
     public EnvConfigSource(Map<String, String> propertyMap, int ordinal) {
         super("EnvConfigSource", propertyMap, ordinal);
+        nameIndex = new NameIndex(getProperties());
     }
 
     @Override
     public String getValue(String propertyName) {
-        return getValue(propertyName, getProperties());
-    }
-
-    private static String getValue(String name, Map<String, String> properties) {
-        if (name == null) {
+        if (propertyName == null) {
             return null;
         }
+        return nameIndex.get(propertyName);
+    }
 
-        // exact match
-        String value = properties.get(name);
-        if (value != null) {
-            return value;
-        }
-
-        // replace non-alphanumeric characters by underscores
-        String sanitizedName = StringUtil.replaceNonAlphanumericByUnderscores(name);
-        value = properties.get(sanitizedName);
-        if (value != null) {
-            return value;
-        }
-
-        // replace non-alphanumeric characters by underscores and convert to uppercase
-        return properties.get(sanitizedName.toUpperCase());
+    @Override
+    public boolean hasExactPropertyNames() {
+        // foo.bar can be found as FOO_BAR.
+        return false;
     }
 
     /**
@@ -87,4 +75,113 @@ public class EnvConfigSource extends MapBackedConfigSource {
             return new EnvConfigSource();
         }
     }
+
+    /**
+     * Index on the environment entries so that a lookup is a single probe without creating the sanitized names.
+     * All the names that can match a property name (the name itself, the name with non-alphanumeric characters
+     * replaced by underscores and the uppercase version of that) have the same normalized form, the uppercase
+     * sanitized name. The entries are stored under the hash of that normalized form and the hash of the property
+     * name is calculated on the fly on the normalized characters. The precedence is the same as the lookups
+     * this index replaces: exact match, sanitized name and uppercase sanitized name.
+     */
+    private static final class NameIndex {
+
+        private static final int EXACT = 0;
+        private static final int SANITIZED = 1;
+        private static final int UPPERCASE = 2;
+        private static final int NO_MATCH = 3;
+
+        private final Entry[] table;
+        private final int mask;
+
+        NameIndex(Map<String, String> properties) {
+            int capacity = Integer.highestOneBit(Math.max(properties.size(), 1) * 2 - 1) << 1;
+            table = new Entry[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                String key = entry.getKey();
+                int hash = normalizedHash(key);
+                int idx = hash & mask;
+                table[idx] = new Entry(hash, key, entry.getValue(), table[idx]);
+            }
+        }
+
+        String get(String name) {
+            int hash = normalizedHash(name);
+            String result = null;
+            int bestMatch = NO_MATCH;
+            for (Entry entry = table[hash & mask]; entry != null; entry = entry.next) {
+                if (entry.hash != hash) {
+                    continue;
+                }
+                int match = match(entry.key, name);
+                if (match < bestMatch) {
+                    if (match == EXACT) {
+                        return entry.value;
+                    }
+                    bestMatch = match;
+                    result = entry.value;
+                }
+            }
+            return result;
+        }
+
+        private static int match(String key, String name) {
+            int length = name.length();
+            if (key.length() != length) {
+                return NO_MATCH;
+            }
+            boolean exact = true;
+            boolean sanitized = true;
+            boolean uppercase = true;
+            for (int i = 0; i < length && (exact || sanitized || uppercase); i++) {
+                char keyChar = key.charAt(i);
+                char nameChar = name.charAt(i);
+                char sanitizedChar = isAlphanumeric(nameChar) ? nameChar : '_';
+                exact &= keyChar == nameChar;
+                sanitized &= keyChar == sanitizedChar;
+                uppercase &= keyChar == toUpperCase(sanitizedChar);
+            }
+            if (exact) {
+                return EXACT;
+            }
+            if (sanitized) {
+                return SANITIZED;
+            }
+            return uppercase ? UPPERCASE : NO_MATCH;
+        }
+
+        private static int normalizedHash(String value) {
+            int hash = 0;
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                hash = 31 * hash + (isAlphanumeric(c) ? toUpperCase(c) : '_');
+            }
+            // spread the higher bits as the table is indexed by the lower ones.
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean isAlphanumeric(char c) {
+            return 'a' <= c && c <= 'z' || 'A' <= c && c <= 'Z' || '0' <= c && c <= '9';
+        }
+
+        private static char toUpperCase(char c) {
+            return 'a' <= c && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+
+        private static final class Entry {
+            private final int hash;
+            private final String key;
+            private final String value;
+            private final Entry next;
+
+            Entry(int hash, String key, String value, Entry next) {
+                this.hash = hash;
+                this.key = key;
+                this.value = value;
+                this.next = next;
+            }
+        }
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.util.StringInterner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a JSON object as configuration properties. Nested objects result in dotted property names, an array of
+ * values is converted to the MicroProfile Config array format (comma separated, commas within a value are escaped)
+ * and properties with a {@code null} value are skipped.
+ */
+final class FlatJsonParser {
+
+    private final String json;
+    private int position;
+
+    private FlatJsonParser(String json) {
+        this.json = json;
+    }
+
+    static Map<String, String> parse(String json) {
+        FlatJsonParser parser = new FlatJsonParser(json);
+        Map<String, String> result = new HashMap<>();
+        parser.skipWhitespace();
+        parser.readObject("", result);
+        parser.skipWhitespace();
+        if (parser.position != json.length()) {
+            throw parser.error("end of the document");
+        }
+        return result;
+    }
+
+    private void readObject(String prefix, Map<String, String> result) {
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = prefix + readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (peek() == '{') {
+                readObject(name + '.', result);
+            } else if (peek() == '[') {
+                result.put(StringInterner.intern(name), StringInterner.intern(readArray()));
+            } else {
+                String value = readScalar();
+                if (value != null) {
+                    result.put(StringInterner.intern(name), StringInterner.intern(value));
+                }
+            }
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect('}');
+                return;
+            }
+        }
+    }
+
+    private String readArray() {
+        expect('[');
+        List<String> values = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return "";
+        }
+        while (true) {
+            skipWhitespace();
+            String value = readScalar();
+            if (value != null) {
+                values.add(value.replace(",", "\\,"));
+            }
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect(']');
+                return String.join(",", values);
+            }
+        }
+    }
+
+    private String readScalar() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        int start = position;
+        while (position < json.length() && "{}[],: \t\r\n".indexOf(json.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = json.substring(start, position);
+        if (literal.isEmpty()) {
+            throw error("value");
+        }
+        if ("null".equals(literal)) {
+            return null;
+        }
+        if (!"true".equals(literal) && !"false".equals(literal) && !isNumber(literal)) {
+            throw error("value", start);
+        }
+        return literal;
+    }
+
+    private static boolean isNumber(String literal) {
+        try {
+            Double.parseDouble(literal);
+            return Character.isDigit(literal.charAt(literal.length() - 1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder result = new StringBuilder();
+        while (true) {
+            if (position >= json.length()) {
+                throw error("'\"'");
+            }
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return result.toString();
+            }
+            if (c != '\\') {
+                result.append(c);
+                continue;
+            }
+            if (position >= json.length()) {
+                throw error("escape sequence");
+            }
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'b':
+                    result.append('\b');
+                    break;
+                case 'f':
+                    result.append('\f');
+                    break;
+                case 'n':
+                    result.append('\n');
+                    break;
+                case 'r':
+                    result.append('\r');
+                    break;
+                case 't':
+                    result.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > json.length()) {
+                        throw error("unicode escape");
+                    }
+                    try {
+                        result.append((char) Integer.parseInt(json, position, position + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    // '"', '\\' and '/'
+                    result.append(escaped);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= json.length()) {
+            throw error("more content");
+        }
+        return json.charAt(position);
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) {
+            throw error("'" + expected + "'");
+        }
+        position++;
+    }
+
+    private IllegalArgumentException error(String expected) {
+        return error(expected, position);
+    }
+
+    private IllegalArgumentException error(String expected, int at) {
+        return new IllegalArgumentException(String.format("MPCONFIG-1009: Invalid JSON, expected %s at position %s", expected, at));
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.sources.interceptor.*;
+import org.eclipse.microprofile.config.ConfigValue;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The interceptor chain when only the built-in interceptors are used. Each level is a final class that knows the
+ * concrete type of the interceptor and of the next level, so that the calls between the levels are not megamorphic
+ * and can be inlined, contrary to the generic chain of {@link AtbashConfigSourceInterceptorContext}s. The
+ * resolution of the values is identical to the generic chain.
+ */
+final class FusedInterceptorChain implements ConfigSourceInterceptorContext {
+    private static final long serialVersionUID = 2916287562409163251L;
+
+    private final transient PropertyNamesConfigSourceInterceptor propertyNames;
+    private final ExpressionStage expressionStage;
+
+    private FusedInterceptorChain(PropertyNamesConfigSourceInterceptor propertyNames, ExpressionStage expressionStage) {
+        this.propertyNames = propertyNames;
+        this.expressionStage = expressionStage;
+    }
+
+    /**
+     * Can the interceptors, ordered from the one closest to the retrieval of the value, be fused?
+     */
+    static boolean supports(List<ConfigSourceInterceptor> interceptors) {
+        if (interceptors.size() > 2) {
+            return false;
+        }
+        ProfileConfigSourceInterceptor profile = null;
+        ExpressionConfigSourceInterceptor expression = null;
+        for (ConfigSourceInterceptor interceptor : interceptors) {
+            if (interceptor.getClass() == ProfileConfigSourceInterceptor.class && profile == null && expression == null) {
+                profile = (ProfileConfigSourceInterceptor) interceptor;
+            } else if (interceptor.getClass() == ExpressionConfigSourceInterceptor.class && expression == null) {
+                expression = (ExpressionConfigSourceInterceptor) interceptor;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the chain for the interceptors, for which {@link #supports(List)} must return true, without the
+     * interceptor for the property names.
+     */
+    static FusedInterceptorChain create(ConfigValueRetrievalInterceptor retrieval, List<ConfigSourceInterceptor> interceptors) {
+        ProfileConfigSourceInterceptor profile = null;
+        ExpressionConfigSourceInterceptor expression = null;
+        for (ConfigSourceInterceptor interceptor : interceptors) {
+            if (interceptor instanceof ProfileConfigSourceInterceptor) {
+                profile = (ProfileConfigSourceInterceptor) interceptor;
+            } else {
+                expression = (ExpressionConfigSourceInterceptor) interceptor;
+            }
+        }
+        ProfileStage profileStage = new ProfileStage(profile, new RetrievalStage(retrieval));
+        return new FusedInterceptorChain(null, new ExpressionStage(expression, profileStage));
+    }
+
+    FusedInterceptorChain withPropertyNames(PropertyNamesConfigSourceInterceptor propertyNames) {
+        return new FusedInterceptorChain(propertyNames, expressionStage);
+    }
+
+    /**
+     * The context that is passed to the {@link ExpressionConfigSourceInterceptor}.
+     */
+    ConfigSourceInterceptorContext getExpressionContext() {
+        return expressionStage.next;
+    }
+
+    @Override
+    public ConfigValue proceed(String name) {
+        if (propertyNames == null) {
+            return expressionStage.proceed(name);
+        }
+        return propertyNames.getValue(expressionStage, name);
+    }
+
+    @Override
+    public Iterator<String> iterateNames() {
+        if (propertyNames == null) {
+            return expressionStage.iterateNames();
+        }
+        return propertyNames.iterateNames(expressionStage);
+    }
+
+    private static final class ExpressionStage implements ConfigSourceInterceptorContext {
+        private static final long serialVersionUID = -4031377652850329147L;
+
+        private final transient ExpressionConfigSourceInterceptor interceptor;
+        private final ProfileStage next;
+
+        ExpressionStage(ExpressionConfigSourceInterceptor interceptor, ProfileStage next) {
+            this.interceptor = interceptor;
+            this.next = next;
+        }
+
+        @Override
+        public ConfigValue proceed(String name) {
+            if (interceptor == null) {
+                return next.proceed(name);
+            }
+            return interceptor.getValue(next, name);
+        }
+
+        @Override
+        public Iterator<String> iterateNames() {
+            if (interceptor == null) {
+                return next.iterateNames();
+            }
+            return interceptor.iterateNames(next);
+        }
+    }
+
+    private static final class ProfileStage implements ConfigSourceInterceptorContext {
+        private static final long serialVersionUID = 7318263924167024950L;
+
+        private final transient ProfileConfigSourceInterceptor interceptor;
+        private final RetrievalStage next;
+
+        ProfileStage(ProfileConfigSourceInterceptor interceptor, RetrievalStage next) {
+            this.interceptor = interceptor;
+            this.next = next;
+        }
+
+        @Override
+        public ConfigValue proceed(String name) {
+            if (interceptor == null) {
+                return next.proceed(name);
+            }
+            return interceptor.getValue(next, name);
+        }
+
+        @Override
+        public Iterator<String> iterateNames() {
+            if (interceptor == null) {
+                return next.iterateNames();
+            }
+            return interceptor.iterateNames(next);
+        }
+    }
+
+    private static final class RetrievalStage implements ConfigSourceInterceptorContext {
+        private static final long serialVersionUID = -2371506918256340762L;
+
+        private static final ConfigSourceInterceptorContext END = new AtbashConfigSourceInterceptorContext(ConfigSourceInterceptor.EMPTY, null);
+
+        private final transient ConfigValueRetrievalInterceptor interceptor;
+
+        RetrievalStage(ConfigValueRetrievalInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public ConfigValue proceed(String name) {
+            return interceptor.getValue(END, name);
+        }
+
+        @Override
+        public Iterator<String> iterateNames() {
+            return interceptor.iterateNames(END);
+        }
+    }
+}
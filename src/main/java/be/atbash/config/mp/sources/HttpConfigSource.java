@@ -0,0 +1,341 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.util.ConfigSourceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileOwnerAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A ConfigSource with the properties retrieved from an HTTP endpoint that is polled for changes. The endpoint returns
+ * a properties file or, when the content type is JSON, a JSON object (see {@link FlatJsonParser} for the conversion to
+ * properties).
+ * <p>
+ * A poll is a conditional request ({@code If-None-Match} and {@code If-Modified-Since} based on the last response), so
+ * an unchanged configuration only costs a 304 response. When the request fails, the next poll is delayed twice as
+ * long each time (up to {@link #MAX_BACKOFF_FACTOR} times the interval) and the current values are kept.
+ * <p>
+ * The last retrieved values are stored in the cache file, readable by the current user only. When the ConfigSource is
+ * created, the values of the cache file are used (when the file is owned by the current user and not writable by
+ * others) and the endpoint is polled in the background, so creating the ConfigSource never waits for the
+ * endpoint and the values are also available when the endpoint is down at startup. Polling starts when the first
+ * listener is registered, which the Config does when it is built, or by {@link #start()}.
+ * <p>
+ * The ordinal is determined when the source is created. Close the ConfigSource to stop polling, this is done
+ * automatically when the Config is released.
+ */
+public class HttpConfigSource extends AbstractConfigSource implements ObservableConfigSource, AutoCloseable {
+
+    private static final long serialVersionUID = -3071834720548627115L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpConfigSource.class);
+
+    private static final String NAME_PREFIX = "HttpConfigSource[source=";
+
+    static final int MAX_BACKOFF_FACTOR = 32;
+    private static final long MIN_TIMEOUT_MILLIS = 1_000;
+    private static final long MAX_TIMEOUT_MILLIS = 30_000;
+
+    private final URL url;
+    private final transient Path cacheFile;
+    private final long intervalMillis;
+    private final int timeoutMillis;
+    private volatile Map<String, String> properties;
+
+    private transient String eTag;
+    private transient String lastModified;
+    private transient int failures;
+
+    private final transient ScheduledExecutorService scheduler;
+    private final transient List<ConfigSourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final transient AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * @param url       the HTTP endpoint serving the properties or the JSON.
+     * @param ordinal   the ordinal of the ConfigSource.
+     * @param interval  the time between 2 polls of the endpoint, must be positive.
+     * @param cacheFile the file where the last retrieved values are stored, can be null when no cache is required.
+     */
+    public HttpConfigSource(URL url, int ordinal, Duration interval, Path cacheFile) {
+        super(NAME_PREFIX + url.toString() + "]", ordinal);
+        if (interval.toMillis() <= 0) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1012: The poll interval must be positive, found %s", interval));
+        }
+        this.url = url;
+        this.cacheFile = cacheFile;
+        this.intervalMillis = interval.toMillis();
+        // A slow endpoint should not delay the next poll too much.
+        this.timeoutMillis = (int) Math.max(MIN_TIMEOUT_MILLIS, Math.min(intervalMillis, MAX_TIMEOUT_MILLIS));
+        this.properties = Collections.unmodifiableMap(readCacheFile());
+
+        String threadName = "config-http-" + url.getHost();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            // Don't keep the ClassLoader of the creator (like a web application) reachable.
+            thread.setContextClassLoader(null);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts polling the endpoint in the background, when not started yet. Called when the first listener is
+     * registered, so that no change is made before the Config observes this source.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(new Poller(this, scheduler));
+            } catch (RejectedExecutionException e) {
+                // The ConfigSource is closed.
+            }
+        }
+    }
+
+    private Map<String, String> readCacheFile() {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return new HashMap<>();
+        }
+        try {
+            if (!isTrusted(cacheFile)) {
+                LOGGER.warn(String.format("MPCONFIG-1018: The cache file %s is not owned by the current user or can be written by others, it is ignored", cacheFile));
+                return new HashMap<>();
+            }
+        } catch (IOException e) {
+            LOGGER.warn(String.format("MPCONFIG-1010: Could not read the cache file %s : %s", cacheFile, e.getLocalizedMessage()));
+            return new HashMap<>();
+        }
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            Properties cached = new Properties();
+            cached.load(inputStream);
+            return ConfigSourceUtil.propertiesToMap(cached);
+        } catch (IOException e) {
+            LOGGER.warn(String.format("MPCONFIG-1010: Could not read the cache file %s : %s", cacheFile, e.getLocalizedMessage()));
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * The cache file is only used when it is owned by the current user and, when the file system supports POSIX
+     * permissions, can't be written by the group or others.
+     */
+    static boolean isTrusted(Path file) throws IOException {
+        FileOwnerAttributeView ownerView = Files.getFileAttributeView(file, FileOwnerAttributeView.class);
+        if (ownerView != null) {
+            UserPrincipal currentUser = file.getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            if (!currentUser.equals(ownerView.getOwner())) {
+                return false;
+            }
+        }
+        PosixFileAttributeView posixView = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        if (posixView != null) {
+            Set<PosixFilePermission> permissions = posixView.readAttributes().permissions();
+            return !permissions.contains(PosixFilePermission.GROUP_WRITE) && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return properties.keySet();
+    }
+
+    @Override
+    public String getValue(String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    @Override
+    public void addChangeListener(ConfigSourceChangeListener listener) {
+        listeners.add(listener);
+        start();
+    }
+
+    @Override
+    public void removeChangeListener(ConfigSourceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Polls the endpoint and returns the delay until the next poll.
+     */
+    private synchronized long scheduledPoll() {
+        // A failure of the request or of the update is handled by poll().
+        poll();
+        return nextDelay(intervalMillis, failures);
+    }
+
+    static long nextDelay(long intervalMillis, int failures) {
+        long factor = 1L << Math.min(failures, Integer.numberOfTrailingZeros(MAX_BACKOFF_FACTOR));
+        return intervalMillis * factor;
+    }
+
+    /**
+     * Polls the endpoint for changes, also when it is not yet time for the next poll.
+     *
+     * @return true when the endpoint responded, with new values or that the values are not modified.
+     */
+    public synchronized boolean poll() {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                connection.setConnectTimeout(timeoutMillis);
+                connection.setReadTimeout(timeoutMillis);
+                if (eTag != null) {
+                    connection.setRequestProperty("If-None-Match", eTag);
+                }
+                if (lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", lastModified);
+                }
+                int status = connection.getResponseCode();
+                if (status == HttpURLConnection.HTTP_OK) {
+                    Map<String, String> newProperties = readProperties(connection);
+                    update(newProperties);
+                    // Only when the values are used, otherwise the next poll would be answered with 304.
+                    eTag = connection.getHeaderField("ETag");
+                    lastModified = connection.getHeaderField("Last-Modified");
+                } else if (status != HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    throw new IOException("Unexpected response status " + status);
+                }
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException | RuntimeException e) {
+            failures++;
+            LOGGER.warn(String.format("MPCONFIG-1011: Could not poll %s, keeping the previous values : %s", url, e.getLocalizedMessage()));
+            return false;
+        }
+        failures = 0;
+        return true;
+    }
+
+    private static Map<String, String> readProperties(HttpURLConnection connection) throws IOException {
+        String contentType = connection.getContentType();
+        try (InputStream inputStream = connection.getInputStream()) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+                return FlatJsonParser.parse(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            Properties result = new Properties();
+            result.load(inputStream);
+            return ConfigSourceUtil.propertiesToMap(result);
+        }
+    }
+
+    private void update(Map<String, String> newProperties) {
+        Set<String> changedNames = ReloadablePropertiesConfigSource.getChangedNames(properties, newProperties);
+        if (changedNames.isEmpty()) {
+            return;
+        }
+        List<Runnable> afterChange = new ArrayList<>();
+        try {
+            for (ConfigSourceChangeListener listener : listeners) {
+                afterChange.add(listener.beforeChange(this, changedNames));
+            }
+            properties = Collections.unmodifiableMap(newProperties);
+        } finally {
+            afterChange.forEach(Runnable::run);
+        }
+        writeCacheFile(newProperties);
+    }
+
+    private void writeCacheFile(Map<String, String> newProperties) {
+        if (cacheFile == null) {
+            return;
+        }
+        Properties cached = new Properties();
+        cached.putAll(newProperties);
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Written completely before it replaces the cache file, a crash never leaves a partial cache file.
+            Path temporary = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+                cached.store(outputStream, url.toString());
+            }
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn(String.format("MPCONFIG-1010: Could not write the cache file %s : %s", cacheFile, e.getLocalizedMessage()));
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Polls the endpoint on the scheduler. Only refers weakly to the ConfigSource and stops the scheduler when the
+     * ConfigSource is no longer used.
+     */
+    private static final class Poller implements Runnable {
+
+        private final WeakReference<HttpConfigSource> source;
+        private final ScheduledExecutorService scheduler;
+
+        private Poller(HttpConfigSource source, ScheduledExecutorService scheduler) {
+            this.source = new WeakReference<>(source);
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            HttpConfigSource configSource = source.get();
+            if (configSource == null) {
+                scheduler.shutdown();
+                return;
+            }
+            long delay;
+            try {
+                delay = configSource.scheduledPoll();
+            } catch (Error e) {
+                LOGGER.error(String.format("MPCONFIG-1011: Could not poll %s, polling is stopped : %s", configSource.url, e));
+                throw e;
+            }
+            try {
+                scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The ConfigSource is closed.
+            }
+        }
+    }
+}
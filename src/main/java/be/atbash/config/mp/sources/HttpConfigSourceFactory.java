@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This {@code HttpConfigSourceFactory} creates an {@link HttpConfigSource} when the endpoint is configured with
+ * {@link #ATBASH_CONFIG_HTTP_URL}. The ConfigSource has the ordinal of the ConfigSource defining the URL, the poll
+ * interval in seconds is defined by {@link #ATBASH_CONFIG_HTTP_INTERVAL} (default 30) and the cache file by
+ * {@link #ATBASH_CONFIG_HTTP_CACHE}. Without a cache file, the values are only available after the first poll.
+ */
+public class HttpConfigSourceFactory implements ConfigSourceFactory {
+
+    public static final String ATBASH_CONFIG_HTTP_URL = "atbash.config.http.url";
+    public static final String ATBASH_CONFIG_HTTP_INTERVAL = "atbash.config.http.interval";
+    public static final String ATBASH_CONFIG_HTTP_CACHE = "atbash.config.http.cache";
+
+    private static final long DEFAULT_INTERVAL = 30;
+
+    @Override
+    public Iterable<ConfigSource> getConfigSources(ConfigSourceContext context) {
+        ConfigValue value = context.getValue(ATBASH_CONFIG_HTTP_URL);
+        if (value.getValue() == null) {
+            return Collections.emptyList();
+        }
+        URL url;
+        try {
+            url = new URL(value.getValue());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1012: The value '%s' of '%s' is not a valid URL", value.getValue(), ATBASH_CONFIG_HTTP_URL), e);
+        }
+
+        return List.of(new HttpConfigSource(url, value.getSourceOrdinal(), getInterval(context), getCacheFile(context)));
+    }
+
+    private static Duration getInterval(ConfigSourceContext context) {
+        String interval = context.getValue(ATBASH_CONFIG_HTTP_INTERVAL).getValue();
+        if (interval == null) {
+            return Duration.ofSeconds(DEFAULT_INTERVAL);
+        }
+        long seconds;
+        try {
+            seconds = Long.parseLong(interval.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1012: The value '%s' of '%s' is not a number of seconds", interval, ATBASH_CONFIG_HTTP_INTERVAL), e);
+        }
+        if (seconds < 1) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1012: The value '%s' of '%s' must be at least 1 second", interval, ATBASH_CONFIG_HTTP_INTERVAL));
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    private static Path getCacheFile(ConfigSourceContext context) {
+        // No default location, a predictable file in a shared directory could be created by another user.
+        String cache = context.getValue(ATBASH_CONFIG_HTTP_CACHE).getValue();
+        return cache == null ? null : Paths.get(cache);
+    }
+}
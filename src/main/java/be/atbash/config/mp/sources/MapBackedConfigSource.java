@@ -22,7 +22,9 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * FIXME this abstract implementation is a problem when ConfigSource is dynamical and content is changed.
+ * A {@link org.eclipse.microprofile.config.spi.ConfigSource} backed by a Map. The source is dynamic, a change to
+ * the Map is visible through the Config. When the Map doesn't change after the source is created, extend
+ * {@link StaticMapBackedConfigSource} instead.
  */
 public abstract class MapBackedConfigSource extends AbstractConfigSource {
 
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+/**
+ * A {@link ConfigSource} which content can change and that notifies the listeners about the names that changed.
+ * {@link ConfigSources} registers a listener for each of these sources so that the listeners on the Config
+ * ({@link be.atbash.config.mp.AtbashConfig#addChangeListener(be.atbash.config.mp.ConfigChangeListener)}) receive the
+ * effective changes.
+ */
+public interface ObservableConfigSource extends ConfigSource {
+
+    void addChangeListener(ConfigSourceChangeListener listener);
+
+    void removeChangeListener(ConfigSourceChangeListener listener);
+}
@@ -25,7 +25,7 @@ import java.net.URL;
  * <p>
  * Based on code by Jeff Mesnil (c) 2017 Red Hat inc.
  */
-public class PropertiesConfigSource extends MapBackedConfigSource {
+public class PropertiesConfigSource extends StaticMapBackedConfigSource {
 
     private static final String NAME_PREFIX = "PropertiesConfigSource[source=";
 
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * This is a {@link ConfigSourceProvider} for getting a configSource for the specified location. This class
@@ -34,7 +35,15 @@ public class PropertiesConfigSourceProvider extends AbstractLocationConfigSource
     private final List<ConfigSource> configSources = new ArrayList<>();
 
     public PropertiesConfigSourceProvider(String location) {
-        this.configSources.addAll(loadConfigSources(new String[]{location}, ConfigSource.DEFAULT_ORDINAL));
+        this(location, null);
+    }
+
+    /**
+     * Reads the resources found for the location concurrently on the executor, or on the calling thread when the
+     * executor is null.
+     */
+    public PropertiesConfigSourceProvider(String location, Executor executor) {
+        this.configSources.addAll(loadConfigSources(new String[]{location}, ConfigSource.DEFAULT_ORDINAL, executor));
     }
 
 
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.util.ConfigSourceUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A properties ConfigSource loaded from a file that is read again when the file changes. The file is watched with
+ * a {@link WatchService} and after a burst of changes (like an editor or a tool writing the file in several steps)
+ * has settled for the debounce period, the file is read once. The properties are kept in an immutable Map that is
+ * replaced as a whole, so a lookup never takes a lock and never sees a partially read file. When the file can't be
+ * read (like it is deleted), the previous values are kept.
+ * <p>
+ * The listeners receive the names that are added, removed or changed.
+ * <p>
+ * The ordinal is determined when the source is created. Close the ConfigSource to stop watching the file, this is
+ * done automatically when the Config is released. The watching thread also stops when the ConfigSource is no longer
+ * used, and a failure during a reload doesn't stop it.
+ */
+public class ReloadablePropertiesConfigSource extends AbstractConfigSource implements ObservableConfigSource, AutoCloseable {
+
+    private static final long serialVersionUID = 4218764290385617219L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadablePropertiesConfigSource.class);
+
+    private static final String NAME_PREFIX = "ReloadablePropertiesConfigSource[source=";
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(200);
+
+    private final URL url;
+    private final transient Path file;
+    private final long debounceMillis;
+    private volatile Map<String, String> properties;
+
+    private final transient WatchService watchService;
+    private final transient List<ConfigSourceChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Construct a new instance with the default debounce period of 200 milliseconds.
+     *
+     * @param url     a property file location, must be a file URL.
+     * @param ordinal the ordinal when the file doesn't define one.
+     * @throws IOException if an error occurred when reading the file or watching it.
+     */
+    public ReloadablePropertiesConfigSource(URL url, int ordinal) throws IOException {
+        this(url, ordinal, DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * @param url      a property file location, must be a file URL.
+     * @param ordinal  the ordinal when the file doesn't define one.
+     * @param debounce the period without changes to the file before it is read again.
+     * @throws IOException if an error occurred when reading the file or watching it.
+     */
+    public ReloadablePropertiesConfigSource(URL url, int ordinal, Duration debounce) throws IOException {
+        this(url, toPath(url), ConfigSourceUtil.urlToMap(url), ordinal, debounce);
+    }
+
+    private ReloadablePropertiesConfigSource(URL url, Path file, Map<String, String> initialProperties, int ordinal, Duration debounce) throws IOException {
+        super(NAME_PREFIX + url.toString() + "]", ConfigSourceUtil.getOrdinalFromMap(initialProperties, ordinal));
+        this.url = url;
+        this.file = file;
+        this.debounceMillis = debounce.toMillis();
+        this.properties = Collections.unmodifiableMap(initialProperties);
+
+        watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE
+                , StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(new Watcher(this), "config-reload-" + file.getFileName());
+        watcher.setDaemon(true);
+        // Don't keep the ClassLoader of the creator (like a web application) reachable.
+        watcher.setContextClassLoader(null);
+        watcher.start();
+    }
+
+    private static Path toPath(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1006: Only file URLs can be reloaded, found %s", url));
+        }
+        try {
+            return Paths.get(url.toURI()).toAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return properties.keySet();
+    }
+
+    @Override
+    public String getValue(String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    @Override
+    public void addChangeListener(ConfigSourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ConfigSourceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reads the file again, also when no change is detected.
+     */
+    public synchronized void reload() {
+        Map<String, String> newProperties;
+        try {
+            newProperties = Collections.unmodifiableMap(new HashMap<>(ConfigSourceUtil.urlToMap(url)));
+        } catch (IOException | RuntimeException e) {
+            // Also a file that is only partially written, like an incomplete unicode escape.
+            LOGGER.warn(String.format("MPCONFIG-1007: Could not reload %s, keeping the previous values : %s", url, e.getLocalizedMessage()));
+            return;
+        }
+        Set<String> changedNames = getChangedNames(properties, newProperties);
+        if (changedNames.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> afterChange = new ArrayList<>();
+        try {
+            for (ConfigSourceChangeListener listener : listeners) {
+                afterChange.add(listener.beforeChange(this, changedNames));
+            }
+            properties = newProperties;
+        } finally {
+            // Also when a listener failed, the ones that are notified must see the end of the change.
+            afterChange.forEach(Runnable::run);
+        }
+    }
+
+    static Set<String> getChangedNames(Map<String, String> oldProperties, Map<String, String> newProperties) {
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<String, String> entry : newProperties.entrySet()) {
+            if (!entry.getValue().equals(oldProperties.get(entry.getKey()))) {
+                result.add(entry.getKey());
+            }
+        }
+        for (String name : oldProperties.keySet()) {
+            if (!newProperties.containsKey(name)) {
+                result.add(name);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Watches the file on a separate thread. Only refers weakly to the ConfigSource and stops when the ConfigSource
+     * is closed or no longer used.
+     */
+    private static final class Watcher implements Runnable {
+
+        // How often the watcher checks, without any file event, that the ConfigSource is still used.
+        private static final long CHECK_INTERVAL_SECONDS = 1;
+
+        private final WeakReference<ReloadablePropertiesConfigSource> source;
+        private final WatchService watchService;
+        private final Path fileName;
+        private final long debounceMillis;
+
+        private Watcher(ReloadablePropertiesConfigSource source) {
+            this.source = new WeakReference<>(source);
+            this.watchService = source.watchService;
+            this.fileName = source.file.getFileName();
+            this.debounceMillis = source.debounceMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = watchService.poll(CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+                    ReloadablePropertiesConfigSource configSource = source.get();
+                    if (configSource == null) {
+                        watchService.close();
+                        return;
+                    }
+                    if (key != null) {
+                        processChanges(configSource, key);
+                    }
+                    configSource = null;  // Not kept while waiting for the next event.
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException | IOException e) {
+                // The ConfigSource is closed.
+            }
+        }
+
+        private void processChanges(ReloadablePropertiesConfigSource configSource, WatchKey key) throws InterruptedException {
+            boolean changed = processEvents(key);
+            // Coalesce the events until there are no changes during the debounce period.
+            WatchKey next;
+            while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                changed |= processEvents(next);
+            }
+            if (changed) {
+                try {
+                    configSource.reload();
+                } catch (RuntimeException e) {
+                    // Keep watching, the next change of the file is handled again.
+                    LOGGER.warn(String.format("MPCONFIG-1017: Failure when reloading %s : %s", configSource.url, e));
+                }
+            }
+        }
+
+        private boolean processEvents(WatchKey key) {
+            boolean result = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                    result = true;
+                }
+            }
+            key.reset();
+            return result;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.ZipFile;
+
+/**
+ * Answers if a resource can exist, without opening it, so that optional resources (like the profile variants of
+ * a configuration file) are not probed by opening a stream and catching the exception when it is missing.
+ * <p>
+ * A file is checked with the file system. For an entry of a jar file, each lookup opens the jar and looks up the
+ * entry in its central directory. Nothing is kept between lookups; the opening is cheap when the jar is already open
+ * by a ClassLoader, as the JDK then shares the central directory, otherwise it is read for every lookup. For other
+ * resources (like http or nested jars) the existence can't be determined up front.
+ */
+final class ResourceExistence {
+
+    private static final ResourceExistence INSTANCE = new ResourceExistence();
+
+    private ResourceExistence() {
+    }
+
+    static ResourceExistence getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param uri the location of the resource.
+     * @return false when the resource certainly doesn't exist.
+     */
+    boolean mayExist(URI uri) {
+        if ("file".equals(uri.getScheme())) {
+            Path file = toPath(uri);
+            return file == null || Files.isRegularFile(file);
+        }
+        if ("jar".equals(uri.getScheme())) {
+            return mayExistInJar(uri.getRawSchemeSpecificPart());
+        }
+        return true;
+    }
+
+    private boolean mayExistInJar(String jarLocation) {
+        int separator = jarLocation.indexOf("!/");
+        if (separator == -1) {
+            return true;
+        }
+        String entryName = URI.create(jarLocation.substring(separator + 2)).getPath();
+        if (entryName == null || entryName.contains("!/")) {
+            // Nested jar.
+            return true;
+        }
+        URI jarUri = URI.create(jarLocation.substring(0, separator));
+        if (!"file".equals(jarUri.getScheme())) {
+            return true;
+        }
+        Path jarFile = toPath(jarUri);
+        if (jarFile == null) {
+            return true;
+        }
+        return hasEntry(jarFile, entryName);
+    }
+
+    private static boolean hasEntry(Path jarFile, String entryName) {
+        try (ZipFile zipFile = new ZipFile(jarFile.toFile())) {
+            return zipFile.getEntry(entryName) != null;
+        } catch (IOException e) {
+            // Let the caller find out when opening the resource.
+            return true;
+        }
+    }
+
+    private static Path toPath(URI uri) {
+        try {
+            return Paths.get(uri);
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+}
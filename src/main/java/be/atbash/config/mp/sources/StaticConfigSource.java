@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+/**
+ * A {@link ConfigSource} which content doesn't change after it is created. {@link ConfigSources} uses this
+ * information to know which names can be found in the source without asking the source itself.
+ * {@link ConfigSource}s that don't implement this interface are considered dynamic and are always consulted.
+ */
+public interface StaticConfigSource extends ConfigSource {
+
+    /**
+     * Indicates if {@link #getValue(String)} only returns a value for a name that is part of
+     * {@link #getPropertyNames()}. A source that maps the requested name to another name, like the
+     * {@link EnvConfigSource}, must return false so that it is still consulted for names it doesn't list.
+     *
+     * @return true when the property names of the source are all the names it can return a value for.
+     */
+    default boolean hasExactPropertyNames() {
+        return true;
+    }
+}
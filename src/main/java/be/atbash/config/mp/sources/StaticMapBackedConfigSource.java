@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import java.util.Map;
+
+/**
+ * A {@link StaticConfigSource} backed by a Map that is not changed after the source is created. The values are
+ * merged with those of the other static sources when the Config is built, so later changes to the Map are not seen.
+ */
+public abstract class StaticMapBackedConfigSource extends MapBackedConfigSource implements StaticConfigSource {
+
+    /**
+     * Construct a new instance. The config source will use the given default ordinal, and
+     * will use the given map as-is (not a copy of it).
+     *
+     * @param name           the config source name
+     * @param propertyMap    the map to use, must not be changed afterwards
+     * @param defaultOrdinal the default ordinal to use if one is not given in the map
+     */
+    protected StaticMapBackedConfigSource(String name, Map<String, String> propertyMap, int defaultOrdinal) {
+        super(name, propertyMap, defaultOrdinal);
+    }
+}
@@ -16,14 +16,16 @@
 package be.atbash.config.mp.sources.interceptor;
 
 import be.atbash.config.mp.ConfigValueImpl;
-import be.atbash.config.mp.expression.CompositeNode;
-import be.atbash.config.mp.expression.Expressions;
+import be.atbash.config.mp.expression.ExpressionDependencyGraph;
+import be.atbash.config.mp.expression.ExpressionEvaluator;
 import be.atbash.config.mp.expression.LiteralNode;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigValue;
 
+import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.eclipse.microprofile.config.inject.ConfigProperty.UNCONFIGURED_VALUE;
 
@@ -35,10 +37,13 @@ import static org.eclipse.microprofile.config.inject.ConfigProperty.UNCONFIGURED
  */
 public class ExpressionConfigSourceInterceptor implements ConfigSourceInterceptor {
 
-    private static final int MAX_DEPTH = 32;
-
     private final boolean enabled;
 
+    private final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+
+    // Only available when the expressions are resolved when the Config is built.
+    private volatile ExpressionPreResolver preResolver;
+
     public ExpressionConfigSourceInterceptor(ConfigSourceInterceptorContext context) {
         this.enabled = Optional.ofNullable(context.proceed(Config.PROPERTY_EXPRESSIONS_ENABLED))
                 .map(ConfigValue::getValue)
@@ -59,24 +64,16 @@ public class ExpressionConfigSourceInterceptor implements ConfigSourceIntercepto
             return null;
         }
 
-        String expanded = configValue.getValue();  // expanded value is the one ConfigSource gave us art the moment
-        // Let see if we need to process that further (like resolving expressions)
-
-        int depth = 1;
-        if (expanded.contains("$")) {
-            //Having a $ might indicate we need to evaluate the expression. Let the parser decide if it is a real expression or a literal.
-            CompositeNode compositeNode = Expressions.parseExpression(expanded);
-            while (depth < MAX_DEPTH && !compositeNode.isNotAnExpression()) {
-
-                expanded = compositeNode.evaluate(context);
-                compositeNode = Expressions.parseExpression(expanded);
-                depth++;
+        ExpressionPreResolver resolver = preResolver;
+        if (resolver != null) {
+            ConfigValue preResolved = resolver.getValue(name, configValue);
+            if (preResolved != null) {
+                return preResolved;
             }
         }
 
-        if (depth == MAX_DEPTH) {
-            throw new IllegalArgumentException(String.format("MPCONFIG-035: Recursive expression expansion is too deep for '%s'", name));
-        }
+        // Let see if we need to process that further (like resolving expressions)
+        String expanded = evaluator.evaluate(name, configValue.getValue(), context);
 
         if (expanded.contains(UNCONFIGURED_VALUE)) {
             // Contains and not equals as we can have an expression and literal
@@ -92,5 +89,71 @@ public class ExpressionConfigSourceInterceptor implements ConfigSourceIntercepto
         return configValue;
     }
 
+    /**
+     * Resolves the expressions of all properties. The values are used at runtime for the properties where the value
+     * and all referenced values come from one of the static sources and as long as they are not invalidated.
+     *
+     * @param context           The context this interceptor uses within the chain.
+     * @param staticSourceNames The names of the {@code ConfigSource}s which content doesn't change.
+     */
+    public void preResolve(ConfigSourceInterceptorContext context, Set<String> staticSourceNames) {
+        if (enabled) {
+            preResolver = ExpressionPreResolver.resolve(evaluator, context, staticSourceNames);
+        }
+    }
+
+    /**
+     * Returns the references between the properties. Only available when the expressions are resolved when the
+     * Config is built, otherwise the graph is empty.
+     */
+    public ExpressionDependencyGraph getDependencyGraph() {
+        ExpressionPreResolver resolver = preResolver;
+        return resolver == null ? new ExpressionDependencyGraph() : resolver.getDependencyGraph();
+    }
 
+    /**
+     * Determines the references between all properties as they are now, independent of the resolution when the
+     * Config is built.
+     *
+     * @param context The context this interceptor uses within the chain.
+     * @return The references between the properties, empty when expressions are disabled.
+     */
+    public ExpressionDependencyGraph buildDependencyGraph(ConfigSourceInterceptorContext context) {
+        if (!enabled) {
+            return new ExpressionDependencyGraph();
+        }
+        return ExpressionPreResolver.resolve(evaluator, context, Collections.emptySet()).getDependencyGraph();
+    }
+
+    /**
+     * Determines the properties that are directly referenced by the expression in the current value of the property.
+     *
+     * @param context The context this interceptor uses within the chain.
+     * @param name    The name of the property.
+     * @return The referenced properties, empty when the value has no expression or expressions are disabled.
+     */
+    public Set<String> getReferences(ConfigSourceInterceptorContext context, String name) {
+        if (!enabled) {
+            return Collections.emptySet();
+        }
+        return ExpressionPreResolver.getReferences(evaluator, context, name);
+    }
+
+    /**
+     * Removes the resolved value of the property and of all properties that depend on it, so that they are evaluated
+     * again on the next lookup.
+     */
+    public void invalidate(String name) {
+        ExpressionPreResolver resolver = preResolver;
+        if (resolver != null) {
+            resolver.invalidate(name);
+        }
+    }
+
+    public void invalidateAll() {
+        ExpressionPreResolver resolver = preResolver;
+        if (resolver != null) {
+            resolver.invalidateAll();
+        }
+    }
 }
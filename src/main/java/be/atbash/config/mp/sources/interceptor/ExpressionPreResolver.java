@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources.interceptor;
+
+import be.atbash.config.mp.ConfigValueImpl;
+import be.atbash.config.mp.expression.ExpressionDependencyGraph;
+import be.atbash.config.mp.expression.ExpressionEvaluator;
+import be.atbash.config.mp.expression.LiteralNode;
+import org.eclipse.microprofile.config.ConfigValue;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.eclipse.microprofile.config.inject.ConfigProperty.UNCONFIGURED_VALUE;
+
+/**
+ * Resolves the expressions of all properties once, when the Config is built. Only the properties where the value
+ * and all referenced values come from a static ConfigSource, that can't be overruled by a dynamic ConfigSource, are
+ * kept. An expression that uses a missing property (like a default value) is never kept. A value is only used when
+ * the property still has the same raw value from the same source, otherwise the expression is evaluated as usual.
+ * <p>
+ * The resolution follows the references depth first, so that a loop between properties is detected exactly.
+ */
+final class ExpressionPreResolver {
+
+    private final ExpressionDependencyGraph dependencyGraph = new ExpressionDependencyGraph();
+    private final Map<String, PreResolvedValue> values = new ConcurrentHashMap<>();
+
+    // Only used during the resolution.
+    private final ExpressionEvaluator evaluator;
+    private final ConfigSourceInterceptorContext context;
+    private final Set<String> staticSourceNames;
+    private final Map<String, Resolution> resolutions = new HashMap<>();
+    private final List<String> inProgress = new ArrayList<>();
+
+    private ExpressionPreResolver(ExpressionEvaluator evaluator, ConfigSourceInterceptorContext context, Set<String> staticSourceNames) {
+        this.evaluator = evaluator;
+        this.context = context;
+        this.staticSourceNames = staticSourceNames;
+    }
+
+    static ExpressionPreResolver resolve(ExpressionEvaluator evaluator, ConfigSourceInterceptorContext context, Set<String> staticSourceNames) {
+        ExpressionPreResolver result = new ExpressionPreResolver(evaluator, context, staticSourceNames);
+        result.resolveAll();
+        return result;
+    }
+
+    /**
+     * Determines the properties that are directly referenced by the expression in the value of the property.
+     */
+    static Set<String> getReferences(ExpressionEvaluator evaluator, ConfigSourceInterceptorContext context, String name) {
+        ExpressionPreResolver resolver = new ExpressionPreResolver(evaluator, context, Collections.emptySet());
+        try {
+            resolver.resolve(name);
+        } catch (LoopException e) {
+            // The references up to the loop are recorded.
+        }
+        return new HashSet<>(resolver.dependencyGraph.getDependencies(name));
+    }
+
+    private void resolveAll() {
+        Iterator<String> names = context.iterateNames();
+        while (names.hasNext()) {
+            try {
+                resolve(names.next());
+            } catch (LoopException e) {
+                // Already recorded for all properties involved.
+            }
+        }
+
+        for (Map.Entry<String, Resolution> entry : resolutions.entrySet()) {
+            Resolution resolution = entry.getValue();
+            if (resolution.loop != null) {
+                values.put(entry.getKey(), new PreResolvedValue(resolution.original, null, resolution.loop));
+            } else if (resolution.isStoredValue()) {
+                ConfigValue resolved = ((ConfigValueImpl) resolution.original).withValue(LiteralNode.unescape(resolution.expanded));
+                values.put(entry.getKey(), new PreResolvedValue(resolution.original, resolved, null));
+            }
+        }
+        resolutions.clear();
+    }
+
+    private Resolution resolve(String name) {
+        Resolution resolution = resolutions.get(name);
+        if (resolution != null) {
+            if (resolution.loop != null) {
+                throw new LoopException(resolution.loop);
+            }
+            return resolution;
+        }
+        int position = inProgress.indexOf(name);
+        if (position != -1) {
+            List<String> loop = new ArrayList<>(inProgress.subList(position, inProgress.size()));
+            loop.add(name);
+            throw new LoopException(String.join(" -> ", loop));
+        }
+
+        ConfigValue configValue = context.proceed(name);
+        if (configValue == null) {
+            resolution = Resolution.MISSING;
+        } else {
+            resolution = resolve(name, configValue);
+        }
+        resolutions.put(name, resolution);
+        return resolution;
+    }
+
+    private Resolution resolve(String name, ConfigValue configValue) {
+        boolean staticValue = staticSourceNames.contains(configValue.getSourceName());
+        String value = configValue.getValue();
+        if (value == null || value.indexOf('$') == -1) {
+            return new Resolution(configValue, value, staticValue, false);
+        }
+
+        Set<String> references = new LinkedHashSet<>();
+        boolean[] allStatic = {staticValue};
+        ConfigSourceInterceptorContext recordingContext = new ConfigSourceInterceptorContext() {
+            @Override
+            public ConfigValue proceed(String reference) {
+                references.add(reference);
+                Resolution referenced = resolve(reference);
+                allStatic[0] &= referenced.staticValue;
+                if (referenced == Resolution.MISSING) {
+                    return null;
+                }
+                // The expanded value of the reference, so that the evaluator doesn't need to resolve it again.
+                return ConfigValueImpl.builder()
+                        .withName(reference)
+                        .withValue(referenced.expanded)
+                        .withRawValue(referenced.expanded)
+                        .build();
+            }
+
+            @Override
+            public Iterator<String> iterateNames() {
+                return context.iterateNames();
+            }
+        };
+
+        inProgress.add(name);
+        try {
+            String expanded = evaluator.evaluate(name, value, recordingContext);
+            return new Resolution(configValue, expanded, allStatic[0], true);
+        } catch (LoopException e) {
+            resolutions.put(name, new Resolution(configValue, e.loop));
+            throw e;
+        } catch (RuntimeException e) {
+            // Keep the evaluation, and the same exception, for the moment the value is requested.
+            return new Resolution(configValue, value, false, false);
+        } finally {
+            inProgress.remove(inProgress.size() - 1);
+            dependencyGraph.addDependencies(name, references);
+        }
+    }
+
+    /**
+     * Returns the resolved value for the property, or null when there is no resolved value or when the configValue
+     * isn't the one that was used for the resolution.
+     */
+    ConfigValue getValue(String name, ConfigValue configValue) {
+        PreResolvedValue preResolvedValue = values.get(name);
+        if (preResolvedValue == null || !preResolvedValue.isResolutionOf(configValue)) {
+            return null;
+        }
+        if (preResolvedValue.loop != null) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-035: Recursive expression expansion is too deep for '%s', loop detected %s", name, preResolvedValue.loop));
+        }
+        return preResolvedValue.resolved;
+    }
+
+    ExpressionDependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    void invalidate(String name) {
+        values.remove(name);
+        for (String dependent : dependencyGraph.getDependents(name)) {
+            values.remove(dependent);
+        }
+    }
+
+    void invalidateAll() {
+        values.clear();
+    }
+
+    private static final class Resolution {
+        // A missing property can be defined by a dynamic source at any moment, so it is never static.
+        private static final Resolution MISSING = new Resolution(null, null, false, false);
+
+        private final ConfigValue original;
+        private final String expanded;
+        private final boolean staticValue;
+        private final boolean expression;
+        private final String loop;
+
+        private Resolution(ConfigValue original, String expanded, boolean staticValue, boolean expression) {
+            this.original = original;
+            this.expanded = expanded;
+            this.staticValue = staticValue;
+            this.expression = expression;
+            this.loop = null;
+        }
+
+        private Resolution(ConfigValue original, String loop) {
+            this.original = original;
+            this.expanded = null;
+            this.staticValue = false;
+            this.expression = true;
+            this.loop = loop;
+        }
+
+        boolean isStoredValue() {
+            return expression && staticValue && original instanceof ConfigValueImpl
+                    && !expanded.contains(UNCONFIGURED_VALUE);
+        }
+    }
+
+    private static final class PreResolvedValue {
+        private final ConfigValue original;
+        private final ConfigValue resolved;
+        private final String loop;
+
+        private PreResolvedValue(ConfigValue original, ConfigValue resolved, String loop) {
+            this.original = original;
+            this.resolved = resolved;
+            this.loop = loop;
+        }
+
+        boolean isResolutionOf(ConfigValue configValue) {
+            return Objects.equals(original.getValue(), configValue.getValue())
+                    && Objects.equals(original.getSourceName(), configValue.getSourceName());
+        }
+    }
+
+    private static final class LoopException extends RuntimeException {
+        private static final long serialVersionUID = -3878960272023152632L;
+
+        private final String loop;
+
+        private LoopException(String loop) {
+            super(loop, null, false, false);
+            this.loop = loop;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources.interceptor;
+
+import org.eclipse.microprofile.config.ConfigValue;
+
+import java.util.*;
+
+/**
+ * A {@link ConfigSourceInterceptor} that keeps the effective value of all properties, as they are resolved by the
+ * chain at the moment this interceptor is created. Profiles are applied and expressions are expanded. The values
+ * are served from an immutable Map and changes in the ConfigSources are no longer picked up for these properties.
+ * <p>
+ * Names that are not listed by the chain (like {@code foo.bar} that can be found as environment variable
+ * {@code FOO_BAR}) and properties that could not be resolved (like an expression referencing a missing property)
+ * are still handed to the chain so that the behaviour, including the exception, is the same.
+ */
+public class FrozenConfigSourceInterceptor implements ConfigSourceInterceptor {
+
+    private final Map<String, ConfigValue> values;
+    private final Set<String> names;
+
+    public FrozenConfigSourceInterceptor(ConfigSourceInterceptorContext context) {
+        Set<String> allNames = new HashSet<>();
+        Map<String, ConfigValue> resolvedValues = new HashMap<>();
+        Iterator<String> namesIterator = context.iterateNames();
+        while (namesIterator.hasNext()) {
+            String name = namesIterator.next();
+            allNames.add(name);
+            try {
+                ConfigValue configValue = context.proceed(name);
+                if (configValue != null) {
+                    resolvedValues.put(name, configValue);
+                }
+            } catch (RuntimeException e) {
+                // The chain reports the problem when the property is requested.
+            }
+        }
+        values = Map.copyOf(resolvedValues);
+        names = Set.copyOf(allNames);
+    }
+
+    @Override
+    public ConfigValue getValue(ConfigSourceInterceptorContext context, String name) {
+        ConfigValue configValue = values.get(name);
+        if (configValue != null) {
+            return configValue;
+        }
+        return context.proceed(name);
+    }
+
+    @Override
+    public Iterator<String> iterateNames(ConfigSourceInterceptorContext context) {
+        return names.iterator();
+    }
+}
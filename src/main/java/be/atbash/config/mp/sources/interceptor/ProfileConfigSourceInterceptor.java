@@ -21,19 +21,31 @@ import be.atbash.config.mp.converter.Converters;
 import org.eclipse.microprofile.config.ConfigValue;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * A {@link ConfigSourceInterceptor} that handles profiles.  When created, it looks for the profile configuration value
  */
 public class ProfileConfigSourceInterceptor implements ConfigSourceInterceptor {
+    // Limits the memory used for the profile names of arbitrary property names.
+    private static final int MAX_CACHED_NAMES = 10_000;
+
     private final String[] profiles;
+    // "%" + profile + "." for each profile.
+    private final String[] profilePrefixes;
 
+    // The names with the profile prefixes for a property name, so that a lookup doesn't create them each time.
+    private final Map<String, String[]> profileNames = new ConcurrentHashMap<>();
 
     public ProfileConfigSourceInterceptor(List<String> profiles) {
         List<String> reverseProfiles = new ArrayList<>(profiles);
         Collections.reverse(reverseProfiles);
         this.profiles = reverseProfiles.toArray(new String[0]);
+        this.profilePrefixes = new String[this.profiles.length];
+        for (int i = 0; i < this.profiles.length; i++) {
+            profilePrefixes[i] = "%" + this.profiles[i] + ".";
+        }
     }
 
     public ProfileConfigSourceInterceptor(ConfigSourceInterceptorContext context) {
@@ -60,11 +72,12 @@ public class ProfileConfigSourceInterceptor implements ConfigSourceInterceptor {
     }
 
     public ConfigValue getProfileValue(ConfigSourceInterceptorContext context, String normalizeName) {
-        for (String profile : profiles) {
-            ConfigValue profileValue = context.proceed("%" + profile + "." + normalizeName);
+        String[] names = getProfileNames(normalizeName);
+        for (int i = 0; i < profiles.length; i++) {
+            ConfigValue profileValue = context.proceed(names[i]);
             if (profileValue != null) {
                 if (profileValue instanceof ConfigValueImpl) {
-                    return ((ConfigValueImpl) profileValue).withProfile(profile);
+                    return ((ConfigValueImpl) profileValue).withProfile(profiles[i]);
                 }
             }
         }
@@ -72,6 +85,20 @@ public class ProfileConfigSourceInterceptor implements ConfigSourceInterceptor {
         return null;
     }
 
+    private String[] getProfileNames(String name) {
+        String[] result = profileNames.get(name);
+        if (result == null) {
+            result = new String[profilePrefixes.length];
+            for (int i = 0; i < profilePrefixes.length; i++) {
+                result[i] = profilePrefixes[i] + name;
+            }
+            if (profileNames.size() < MAX_CACHED_NAMES) {
+                profileNames.put(name, result);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Iterator<String> iterateNames(ConfigSourceInterceptorContext context) {
         final Set<String> names = new HashSet<>();
@@ -88,9 +115,12 @@ public class ProfileConfigSourceInterceptor implements ConfigSourceInterceptor {
     }
 
     private String normalizeName(String name) {
-        for (String profile : profiles) {
-            if (name.startsWith("%" + profile + ".")) {
-                return name.substring(profile.length() + 2);
+        if (name.isEmpty() || name.charAt(0) != '%') {
+            return name;
+        }
+        for (String profilePrefix : profilePrefixes) {
+            if (name.startsWith(profilePrefix)) {
+                return name.substring(profilePrefix.length());
             }
         }
 
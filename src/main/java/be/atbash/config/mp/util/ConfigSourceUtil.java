@@ -22,7 +22,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -40,7 +46,7 @@ public final class ConfigSourceUtil {
     }
 
     /**
-     * convert {@link Properties} to {@link Map}
+     * convert {@link Properties} to {@link Map}, the keys and values are canonicalized through {@link StringInterner}.
      *
      * @param properties {@link Properties} object
      * @return {@link Map} object
@@ -50,19 +56,42 @@ public final class ConfigSourceUtil {
         Map<String, String> result = new HashMap<>();
 
         for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-            result.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            result.put(StringInterner.intern(String.valueOf(entry.getKey())), StringInterner.intern(String.valueOf(entry.getValue())));
         }
 
         return result;
     }
 
     public static Map<String, String> urlToMap(URL locationOfProperties) throws IOException {
+        return urlToMap(locationOfProperties, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the properties file. A file URL is parsed through {@link PropertiesParser}, other URLs through
+     * {@link Properties}.
+     *
+     * @param locationOfProperties the location of the properties file.
+     * @param charset              the encoding of the file, ISO-8859-1 or UTF-8.
+     * @return the properties.
+     * @throws IOException if the file can't be read.
+     */
+    public static Map<String, String> urlToMap(URL locationOfProperties, Charset charset) throws IOException {
+        if ("file".equals(locationOfProperties.getProtocol())) {
+            Path file;
+            try {
+                file = Paths.get(locationOfProperties.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException(e);
+            }
+            return PropertiesParser.parse(file, charset);
+        }
+
         Properties properties = new Properties();
 
         // We do expect an IOException to be thrown when locationOfProperties does not exist.
         InputStream inputStream = ResourceUtil.getInstance().getStream(locationOfProperties.toExternalForm());
 
-        properties.load(inputStream);
+        properties.load(new InputStreamReader(inputStream, charset));
 
         inputStream.close();
 
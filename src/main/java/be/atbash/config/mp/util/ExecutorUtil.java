@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Utilities to run the loading of configuration on an {@link Executor}.
+ */
+public final class ExecutorUtil {
+
+    private ExecutorUtil() {
+    }
+
+    /**
+     * Runs all tasks on the executor and returns the results in the order of the tasks, so that the outcome is the
+     * same as running them one after the other. When the executor is null, the tasks are run by the calling thread.
+     * A RuntimeException thrown by a task is thrown by this method (the one of the first task in order).
+     * <p>
+     * The calling thread doesn't wait for a task that the executor didn't start yet but runs it itself. So the tasks
+     * complete also when the calling thread is a thread of a bounded executor and the tasks are queued behind it,
+     * like when the same executor is used for {@code AtbashConfigBuilder.buildAsync} and for loading.
+     *
+     * @param tasks    the tasks to run.
+     * @param executor The executor to use or null.
+     * @param <T>      the result type of the tasks.
+     * @return the results in the order of the tasks.
+     */
+    public static <T> List<T> invokeInOrder(List<Supplier<T>> tasks, Executor executor) {
+        List<T> result = new ArrayList<>(tasks.size());
+        if (executor == null || tasks.size() < 2) {
+            for (Supplier<T> task : tasks) {
+                result.add(task.get());
+            }
+            return result;
+        }
+
+        List<OrderedTask<T>> orderedTasks = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks) {
+            OrderedTask<T> orderedTask = new OrderedTask<>(task);
+            orderedTasks.add(orderedTask);
+            try {
+                executor.execute(orderedTask);
+            } catch (RejectedExecutionException e) {
+                // Run by the calling thread.
+            }
+        }
+        for (OrderedTask<T> orderedTask : orderedTasks) {
+            // Runs the task when the executor didn't start it yet.
+            orderedTask.run();
+            try {
+                result.add(orderedTask.result.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wraps the task so that it runs with the ClassLoader as context ClassLoader, which is restored afterwards. For
+     * tasks run on an executor that must discover the same services as the thread that created them.
+     *
+     * @param classLoader the context ClassLoader for the task.
+     * @param task        the task.
+     * @param <T>         the result type of the task.
+     * @return the wrapped task.
+     */
+    public static <T> Supplier<T> withContextClassLoader(ClassLoader classLoader, Supplier<T> task) {
+        return () -> {
+            Thread thread = Thread.currentThread();
+            ClassLoader original = thread.getContextClassLoader();
+            thread.setContextClassLoader(classLoader);
+            try {
+                return task.get();
+            } finally {
+                thread.setContextClassLoader(original);
+            }
+        };
+    }
+
+    /**
+     * A task that is run once, by the executor or by the calling thread, whichever starts it first.
+     */
+    private static final class OrderedTask<T> implements Runnable {
+
+        private final Supplier<T> task;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private OrderedTask(Supplier<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                // Reported to the calling thread by invokeInOrder.
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
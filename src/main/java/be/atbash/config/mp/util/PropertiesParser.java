@@ -0,0 +1,343 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parser for the {@code .properties} format, following the grammar of {@link java.util.Properties#load(java.io.Reader)}
+ * (comments, line continuations, key separators, escapes and {@code \}{@code uXXXX}). Files are read at once through
+ * a {@link FileChannel} and decoded directly into the resulting Map, without the intermediate {@code Properties}
+ * (Hashtable) and without copying the entries afterwards.
+ * <p>
+ * The content is decoded as ISO-8859-1, like {@link java.util.Properties#load(java.io.InputStream)}, or as UTF-8.
+ * Malformed UTF-8 sequences are replaced by U+FFFD. Keys and values are canonicalized through {@link StringInterner}.
+ */
+public final class PropertiesParser {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final ByteBuffer buffer;
+    private final boolean utf8;
+
+    // The low surrogate of a decoded 4-byte UTF-8 sequence, returned by the next call to nextChar().
+    private int pendingChar = -1;
+
+    // The current logical line, reused for each line.
+    private char[] line = new char[256];
+    private char[] converted = new char[256];
+
+    private PropertiesParser(ByteBuffer buffer, Charset charset) {
+        if (!StandardCharsets.ISO_8859_1.equals(charset) && !StandardCharsets.UTF_8.equals(charset)) {
+            throw new IllegalArgumentException(String.format("MPCONFIG-1013: Unsupported charset %s for properties, only ISO-8859-1 and UTF-8 are supported", charset));
+        }
+        this.buffer = buffer;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * Parses the properties file, which is read completely into memory. The file isn't memory mapped, as a mapping
+     * fails with an {@code InternalError} when the file is truncated while reading and keeps the file locked on
+     * Windows until the mapping is garbage collected.
+     *
+     * @param file    the properties file.
+     * @param charset ISO-8859-1 or UTF-8.
+     * @return the properties.
+     * @throws IOException if the file can't be read.
+     */
+    public static Map<String, String> parse(Path file, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("MPCONFIG-1014: Properties file %s is too large", file));
+            }
+            ByteBuffer content = ByteBuffer.allocate((int) size);
+            // The file can become shorter while reading, the content read so far is used then.
+            while (content.hasRemaining() && channel.read(content) != -1) {
+                // Continue until the buffer is filled or the end of the file is reached.
+            }
+            content.flip();
+            return parse(content, charset);
+        }
+    }
+
+    /**
+     * Parses the properties from the remaining content of the buffer.
+     *
+     * @param buffer  the content, the position of the buffer is moved to its limit.
+     * @param charset ISO-8859-1 or UTF-8.
+     * @return the properties.
+     */
+    public static Map<String, String> parse(ByteBuffer buffer, Charset charset) {
+        return new PropertiesParser(buffer, charset).parse();
+    }
+
+    private Map<String, String> parse() {
+        Map<String, String> result = new HashMap<>();
+        int length;
+        while ((length = readLine()) >= 0) {
+            parseLine(length, result);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the next logical line, without the leading whitespace, comments, empty lines and line continuations.
+     *
+     * @return the length of the line within {@code line}, or -1 at the end of the content.
+     */
+    private int readLine() {
+        int length = 0;
+        boolean skipWhitespace = true;
+        boolean commentLine = false;
+        boolean newLine = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        int c;
+        while ((c = nextChar()) >= 0) {
+            if (skipWhitespace) {
+                if (c == ' ' || c == '\t' || c == '\f') {
+                    continue;
+                }
+                if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+            if (newLine) {
+                newLine = false;
+                if (c == '#' || c == '!') {
+                    commentLine = true;
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                if (commentLine || length == 0) {
+                    commentLine = false;
+                    newLine = true;
+                    skipWhitespace = true;
+                    length = 0;
+                    continue;
+                }
+                if (precedingBackslash) {
+                    // Continuation, the backslash is removed and the next line is appended without leading whitespace.
+                    length--;
+                    skipWhitespace = true;
+                    appendedLineBegin = true;
+                    precedingBackslash = false;
+                    if (c == '\r' && peekChar() == '\n') {
+                        nextChar();
+                    }
+                    continue;
+                }
+                return length;
+            }
+            if (commentLine) {
+                continue;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (char) c;
+            precedingBackslash = c == '\\' && !precedingBackslash;
+        }
+        if (length == 0 || commentLine) {
+            return -1;
+        }
+        if (precedingBackslash) {
+            length--;
+        }
+        return length;
+    }
+
+    private void parseLine(int length, Map<String, String> result) {
+        int keyLength = 0;
+        int valueStart = length;
+        boolean hasSeparator = false;
+        boolean precedingBackslash = false;
+        while (keyLength < length) {
+            char c = line[keyLength];
+            if ((c == '=' || c == ':') && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                hasSeparator = true;
+                break;
+            }
+            if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                valueStart = keyLength + 1;
+                break;
+            }
+            precedingBackslash = c == '\\' && !precedingBackslash;
+            keyLength++;
+        }
+        while (valueStart < length) {
+            char c = line[valueStart];
+            if (c != ' ' && c != '\t' && c != '\f') {
+                if (!hasSeparator && (c == '=' || c == ':')) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+        String key = StringInterner.intern(convert(0, keyLength));
+        String value = StringInterner.intern(convert(valueStart, length - valueStart));
+        result.put(key, value);
+    }
+
+    /**
+     * Replaces the escape sequences within the part of the line.
+     */
+    private String convert(int offset, int length) {
+        if (converted.length < length) {
+            converted = new char[Math.max(length, converted.length * 2)];
+        }
+        int end = offset + length;
+        int position = offset;
+        int out = 0;
+        while (position < end) {
+            char c = line[position++];
+            if (c != '\\') {
+                converted[out++] = c;
+                continue;
+            }
+            if (position == end) {
+                // Only possible for a key ending with a backslash before the separator, which is dropped.
+                break;
+            }
+            c = line[position++];
+            if (c == 'u') {
+                if (position + 4 > end) {
+                    throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(line[position++], 16);
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    value = (value << 4) + digit;
+                }
+                converted[out++] = (char) value;
+            } else {
+                switch (c) {
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    default:
+                        // The character itself.
+                }
+                converted[out++] = c;
+            }
+        }
+        return new String(converted, 0, out);
+    }
+
+    private int peekChar() {
+        if (pendingChar >= 0) {
+            return pendingChar;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        // Only used to detect an ASCII character.
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int nextChar() {
+        if (pendingChar >= 0) {
+            int result = pendingChar;
+            pendingChar = -1;
+            return result;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int b0 = buffer.get() & 0xFF;
+        if (!utf8 || b0 < 0x80) {
+            return b0;
+        }
+        return decodeUtf8(b0);
+    }
+
+    private int decodeUtf8(int b0) {
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            int b1 = continuation(0x80, 0xBF);
+            return b1 < 0 ? REPLACEMENT : ((b0 & 0x1F) << 6) | (b1 & 0x3F);
+        }
+        if (b0 >= 0xE0 && b0 <= 0xEF) {
+            // No overlong encodings and no surrogates.
+            int b1 = continuation(b0 == 0xE0 ? 0xA0 : 0x80, b0 == 0xED ? 0x9F : 0xBF);
+            if (b1 < 0) {
+                return REPLACEMENT;
+            }
+            int b2 = continuation(0x80, 0xBF);
+            return b2 < 0 ? REPLACEMENT : ((b0 & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+        }
+        if (b0 >= 0xF0 && b0 <= 0xF4) {
+            int b1 = continuation(b0 == 0xF0 ? 0x90 : 0x80, b0 == 0xF4 ? 0x8F : 0xBF);
+            if (b1 < 0) {
+                return REPLACEMENT;
+            }
+            int b2 = continuation(0x80, 0xBF);
+            if (b2 < 0) {
+                return REPLACEMENT;
+            }
+            int b3 = continuation(0x80, 0xBF);
+            if (b3 < 0) {
+                return REPLACEMENT;
+            }
+            int codePoint = ((b0 & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+            pendingChar = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+        return REPLACEMENT;
+    }
+
+    /**
+     * Reads the next byte when it is within the range, otherwise leaves it for the next character.
+     */
+    private int continuation(int min, int max) {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int b = buffer.get(buffer.position()) & 0xFF;
+        if (b < min || b > max) {
+            return -1;
+        }
+        buffer.get();
+        return b;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shared table of canonical Strings for the keys and values read by the ConfigSources, so that the same key or value
+ * (like {@code true}, a host name or a common prefix) defined in several sources (profile variants, a file per jar,
+ * ...) is only once on the heap. The table holds the Strings weakly, a String that is no longer used by any
+ * ConfigSource can be garbage collected.
+ * <p>
+ * The table is split in segments to limit the contention when sources are loaded concurrently.
+ */
+public final class StringInterner {
+
+    private static final int SEGMENTS = 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<String, WeakReference<String>>[] TABLES = new Map[SEGMENTS];
+
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            TABLES[i] = new WeakHashMap<>();
+        }
+    }
+
+    private StringInterner() {
+    }
+
+    /**
+     * Returns the canonical instance of the String.
+     *
+     * @param value the String, can be null.
+     * @return the String that is equal to value and is the one kept in the table.
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        Map<String, WeakReference<String>> table = TABLES[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+        synchronized (table) {
+            WeakReference<String> reference = table.get(value);
+            String result = reference == null ? null : reference.get();
+            if (result == null) {
+                table.put(value, new WeakReference<>(value));
+                result = value;
+            }
+            return result;
+        }
+    }
+}
@@ -18,17 +18,38 @@ package be.atbash.config.mp;
 import be.atbash.config.mp.converter.testclass.CustomIntegerConverter;
 import be.atbash.config.mp.converter.testclass.SomeClassConverter1;
 import be.atbash.config.mp.converter.testclass.SomeClassConverter2;
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
 import be.atbash.config.mp.util.testclass.SomeClass;
 import org.assertj.core.api.Assertions;
 import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.eclipse.microprofile.config.spi.ConfigSourceProvider;
 import org.eclipse.microprofile.config.spi.Converter;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
 import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class AtbashConfigBuilderTest {
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void build_minimal() {
         AtbashConfigProviderResolver resolver = new AtbashConfigProviderResolver();
@@ -89,4 +110,196 @@ class AtbashConfigBuilderTest {
         Assertions.assertThat(converter.get().convert("XX")).isEqualTo(76543);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void build_withLoadExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Config sequential = new AtbashConfigBuilder()
+                    .addDefaultSources()
+                    .addDiscoveredSources()
+                    .build();
+            Config parallel = new AtbashConfigBuilder()
+                    .addDefaultSources()
+                    .addDiscoveredSources()
+                    .withLoadExecutor(executor)
+                    .build();
+
+            Assertions.assertThat(getSourceNames(parallel)).isEqualTo(getSourceNames(sequential));
+            Assertions.assertThat(parallel.getValue("hello", String.class)).isEqualTo("world");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void buildAsync() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<AtbashConfig> future = new AtbashConfigBuilder()
+                    .addDefaultInterceptors()
+                    .addDefaultSources()
+                    .addDiscoveredConverters()
+                    .buildAsync(executor);
+
+            AtbashConfig config = future.join();
+            Assertions.assertThat(config.getValue("hello", String.class)).isEqualTo("world");
+            Assertions.assertThat(config.getConverter(SomeClass.class)).isPresent();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void buildAsync_contextClassLoaderOfCaller() throws IOException {
+        // Tasks run on threads with the ClassLoader of the test as context ClassLoader.
+        ClassLoader testClassLoader = AtbashConfigBuilderTest.class.getClassLoader();
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setContextClassLoader(testClassLoader);
+            return thread;
+        });
+
+        // The caller uses a ClassLoader that has an additional ConfigSource as service.
+        Path services = tempDir.resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.writeString(services.resolve(ConfigSource.class.getName()), ServiceConfigSource.class.getName());
+        ClassLoader callerClassLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, testClassLoader);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(callerClassLoader);
+        try {
+            AtbashConfig config = new AtbashConfigBuilder()
+                    .addDiscoveredSources()
+                    .buildAsync(executor)
+                    .join();
+
+            Assertions.assertThat(config.getValue("service", String.class)).isEqualTo("discovered");
+        } finally {
+            thread.setContextClassLoader(original);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void build_loadExecutorProvidersWithContextClassLoader() throws IOException {
+        // Tasks run, before the caller continues, on threads with the ClassLoader of the test as context ClassLoader.
+        ClassLoader testClassLoader = AtbashConfigBuilderTest.class.getClassLoader();
+        Executor executor = runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setContextClassLoader(testClassLoader);
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Path services = tempDir.resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.writeString(services.resolve(ConfigSourceProvider.class.getName())
+                , ContextClassLoaderProvider1.class.getName() + "\n" + ContextClassLoaderProvider2.class.getName());
+        ClassLoader callerClassLoader = new URLClassLoader(new URL[]{tempDir.toUri().toURL()}, testClassLoader);
+
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(callerClassLoader);
+        try {
+            AtbashConfig config = new AtbashConfigBuilder()
+                    .forClassLoader(callerClassLoader)
+                    .withLoadExecutor(executor)
+                    .addDiscoveredSources()
+                    .build();
+
+            Assertions.assertThat(config.getValue("provider1", Boolean.class)).isTrue();
+            Assertions.assertThat(config.getValue("provider2", Boolean.class)).isTrue();
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    @Test
+    public void buildAsync_exception() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<AtbashConfig> future = new AtbashConfigBuilder()
+                    .withSources(new FailingConfigSource())
+                    .buildAsync(executor);
+
+            CompletionException exception = Assertions.catchThrowableOfType(future::join, CompletionException.class);
+            Assertions.assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> getSourceNames(Config config) {
+        List<String> result = new ArrayList<>();
+        for (ConfigSource configSource : config.getConfigSources()) {
+            result.add(configSource.getName());
+        }
+        return result;
+    }
+
+    public static class ServiceConfigSource implements ConfigSource {
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return Set.of("service");
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return "service".equals(propertyName) ? "discovered" : null;
+        }
+
+        @Override
+        public String getName() {
+            return "service";
+        }
+    }
+
+    public static class ContextClassLoaderProvider1 implements ConfigSourceProvider {
+
+        @Override
+        public Iterable<ConfigSource> getConfigSources(ClassLoader forClassLoader) {
+            boolean same = Thread.currentThread().getContextClassLoader() == forClassLoader;
+            return List.of(new StaticMapBackedConfigSource("provider1", Map.of("provider1", String.valueOf(same)), 100) {
+            });
+        }
+    }
+
+    public static class ContextClassLoaderProvider2 implements ConfigSourceProvider {
+
+        @Override
+        public Iterable<ConfigSource> getConfigSources(ClassLoader forClassLoader) {
+            boolean same = Thread.currentThread().getContextClassLoader() == forClassLoader;
+            return List.of(new StaticMapBackedConfigSource("provider2", Map.of("provider2", String.valueOf(same)), 100) {
+            });
+        }
+    }
+
+    private static class FailingConfigSource implements ConfigSource {
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return Set.of();
+        }
+
+        @Override
+        public int getOrdinal() {
+            throw new IllegalStateException("Failing ConfigSource");
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "failing";
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import be.atbash.config.mp.sources.MapBackedConfigSource;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.spi.Converter;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+class AtbashConfigPrimitiveTest {
+
+    private static final String[] VALUES = {"42", " 42 ", "-7", "+7", "", "   ", "4.5", "1e3", " NaN", "abc", "2147483648"
+            , "9223372036854775808", "true", " TRUE ", "yes", "Y", "on", "1", "0", "false", "no"};
+
+    @Test
+    void getInt() {
+        AtbashConfig config = buildConfig();
+        for (int i = 0; i < VALUES.length; i++) {
+            String name = "key" + i;
+            assertSameResult(name, () -> config.getInt(name), () -> config.getValue(name, Integer.class));
+            assertSameResult(name, () -> config.getInt(name, -1), () -> config.getOptionalValue(name, Integer.class).orElse(-1));
+        }
+        assertSameResult("missing", () -> config.getInt("missing"), () -> config.getValue("missing", Integer.class));
+        Assertions.assertThat(config.getInt("missing", 5)).isEqualTo(5);
+    }
+
+    @Test
+    void getLong() {
+        AtbashConfig config = buildConfig();
+        for (int i = 0; i < VALUES.length; i++) {
+            String name = "key" + i;
+            assertSameResult(name, () -> config.getLong(name), () -> config.getValue(name, Long.class));
+            assertSameResult(name, () -> config.getLong(name, -1L), () -> config.getOptionalValue(name, Long.class).orElse(-1L));
+        }
+        assertSameResult("missing", () -> config.getLong("missing"), () -> config.getValue("missing", Long.class));
+        Assertions.assertThat(config.getLong("missing", 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    void getDouble() {
+        AtbashConfig config = buildConfig();
+        for (int i = 0; i < VALUES.length; i++) {
+            String name = "key" + i;
+            assertSameResult(name, () -> config.getDouble(name), () -> config.getValue(name, Double.class));
+            assertSameResult(name, () -> config.getDouble(name, -1.0), () -> config.getOptionalValue(name, Double.class).orElse(-1.0));
+        }
+        assertSameResult("missing", () -> config.getDouble("missing"), () -> config.getValue("missing", Double.class));
+        Assertions.assertThat(config.getDouble("missing", 5.0)).isEqualTo(5.0);
+    }
+
+    @Test
+    void getBoolean() {
+        AtbashConfig config = buildConfig();
+        for (int i = 0; i < VALUES.length; i++) {
+            String name = "key" + i;
+            assertSameResult(name, () -> config.getBoolean(name), () -> config.getValue(name, Boolean.class));
+            assertSameResult(name, () -> config.getBoolean(name, true), () -> config.getOptionalValue(name, Boolean.class).orElse(true));
+        }
+        assertSameResult("missing", () -> config.getBoolean("missing"), () -> config.getValue("missing", Boolean.class));
+        Assertions.assertThat(config.getBoolean("missing", true)).isTrue();
+    }
+
+    @Test
+    void getInt_customConverter() {
+        Converter<Integer> converter = new HexIntegerConverter();
+        AtbashConfig config = new AtbashConfigBuilder()
+                .withSources(new TestSource(Map.of("mask", "ff")))
+                .withConverters(new Converter[]{converter})
+                .build();
+
+        Assertions.assertThat(config.getInt("mask")).isEqualTo(255);
+        Assertions.assertThat(config.getInt("mask", 0)).isEqualTo(255);
+    }
+
+    private static void assertSameResult(String name, Supplier<Object> actual, Supplier<Object> expected) {
+        Object expectedResult;
+        try {
+            expectedResult = expected.get();
+        } catch (RuntimeException e) {
+            Throwable thrown = Assertions.catchThrowable(actual::get);
+            Assertions.assertThat(thrown).as(name).isInstanceOf(e.getClass()).hasMessage(e.getMessage());
+            return;
+        }
+        Assertions.assertThat(actual.get()).as(name).isEqualTo(expectedResult);
+    }
+
+    private static AtbashConfig buildConfig() {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < VALUES.length; i++) {
+            properties.put("key" + i, VALUES[i]);
+        }
+        return new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new TestSource(properties))
+                .build();
+    }
+
+    private static class TestSource extends MapBackedConfigSource {
+
+        TestSource(Map<String, String> properties) {
+            super("test", properties, 100);
+        }
+    }
+
+    public static class HexIntegerConverter implements Converter<Integer> {
+
+        @Override
+        public Integer convert(String value) {
+            return Integer.parseInt(value.trim(), 16);
+        }
+    }
+}
@@ -16,13 +16,18 @@
 package be.atbash.config.mp;
 
 import be.atbash.config.mp.AtbashConfigProviderResolver;
+import be.atbash.config.mp.converter.testclass.TemporaryValue;
 import org.assertj.core.api.Assertions;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.eclipse.microprofile.config.spi.Converter;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 class AtbashConfigProviderResolverTest {
 
@@ -100,6 +105,74 @@ class AtbashConfigProviderResolverTest {
         Assertions.assertThat(converter.isCloseCalled).isTrue();
     }
 
+    @Test
+    void getConfig_classLoaderCollected() throws InterruptedException {
+        AtbashConfigProviderResolver resolver = new AtbashConfigProviderResolver();
+        AutoCloseableConfigSource configSource = new AutoCloseableConfigSource(false);
+        WeakReference<ClassLoader> classLoader = registerForTemporaryClassLoader(resolver, configSource, null);
+
+        awaitCollected(classLoader);
+        awaitExpunged(resolver, configSource);
+    }
+
+    @Test
+    void getConfig_classLoaderWithImplicitConverterCollected() throws Exception {
+        AtbashConfigProviderResolver resolver = new AtbashConfigProviderResolver();
+        AutoCloseableConfigSource configSource = new AutoCloseableConfigSource(false);
+        URL testClasses = TemporaryValue.class.getProtectionDomain().getCodeSource().getLocation();
+        WeakReference<ClassLoader> classLoader = registerForTemporaryClassLoader(resolver, configSource, testClasses);
+
+        // The converter for a class of that ClassLoader doesn't keep the ClassLoader reachable.
+        awaitCollected(classLoader);
+        awaitExpunged(resolver, configSource);
+    }
+
+    private static WeakReference<ClassLoader> registerForTemporaryClassLoader(AtbashConfigProviderResolver resolver, ConfigSource configSource, URL classPath) {
+        ClassLoader classLoader = new URLClassLoader(classPath == null ? new URL[0] : new URL[]{classPath}, null);
+        Config config = resolver.getBuilder()
+                .withSources(configSource)
+                .build();
+        resolver.registerConfig(config, classLoader);
+        Assertions.assertThat(resolver.getConfig(classLoader)).isSameAs(config);
+
+        if (classPath != null) {
+            Class<?> valueClass = loadClass(classLoader, TemporaryValue.class.getName());
+            Assertions.assertThat(valueClass.getClassLoader()).isSameAs(classLoader);
+            Assertions.assertThat(config.getConverter(valueClass)).isPresent();
+            Assertions.assertThat(config.getOptionalValue("value", valueClass)).isEmpty();
+        }
+        return new WeakReference<>(classLoader);
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String name) {
+        try {
+            return classLoader.loadClass(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitCollected(WeakReference<ClassLoader> classLoader) throws InterruptedException {
+        // System.gc() is only a request, bounded to a few seconds.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (classLoader.get() != null && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertThat(classLoader.get()).as("ClassLoader garbage collected within 5 seconds").isNull();
+    }
+
+    private static void awaitExpunged(AtbashConfigProviderResolver resolver, AutoCloseableConfigSource configSource) throws InterruptedException {
+        // The collected ClassLoader is queued by the JVM shortly after it is cleared, bounded to a few seconds.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!configSource.isCloseCalled && System.nanoTime() < deadline) {
+            // Any modification of the registry removes the Configs of the collected ClassLoaders.
+            resolver.releaseConfig(resolver.getBuilder().build());
+            Thread.sleep(10);
+        }
+        Assertions.assertThat(configSource.isCloseCalled).as("Config of the collected ClassLoader closed within 5 seconds").isTrue();
+    }
+
     private static class AutoCloseableConfigSource implements ConfigSource, AutoCloseable {
 
         private boolean isCloseCalled;
@@ -15,12 +15,16 @@
  */
 package be.atbash.config.mp;
 
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
 import org.assertj.core.api.Assertions;
 import org.eclipse.microprofile.config.ConfigValue;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.eclipse.microprofile.config.spi.Converter;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+
 import java.lang.reflect.Type;
 import java.util.*;
 
@@ -165,6 +169,87 @@ class AtbashConfigTest {
         Assertions.assertThat(configValue.getRawValue()).isEqualTo("bar");
     }
 
+    @Test
+    void getValue_cached() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "bar");
+        AtbashConfigBuilder builder = new AtbashConfigBuilder().withSources(buildConfigSource(properties))
+                .withValueCache();
+        HashMap<Type, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, STRING_CONVERTER);
+        AtbashConfig config = new AtbashConfig(builder, converters);
+
+        Assertions.assertThat(config.getValue("foo", String.class)).isEqualTo("bar");
+
+        properties.put("foo", "changed");
+        Assertions.assertThat(config.getValue("foo", String.class)).isEqualTo("bar");
+        Assertions.assertThat(config.getConfigValue("foo").getValue()).isEqualTo("changed");  // Not cached
+    }
+
+    @Test
+    void getValue_cacheInvalidated() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "bar");
+        properties.put("other", "value");
+        AtbashConfigBuilder builder = new AtbashConfigBuilder().withSources(buildConfigSource(properties))
+                .withValueCache();
+        HashMap<Type, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, STRING_CONVERTER);
+        AtbashConfig config = new AtbashConfig(builder, converters);
+
+        Assertions.assertThat(config.getValue("foo", String.class)).isEqualTo("bar");
+        Assertions.assertThat(config.getValue("other", String.class)).isEqualTo("value");
+
+        properties.put("foo", "changed");
+        properties.put("other", "changed");
+        config.invalidateCachedValue("foo");
+        Assertions.assertThat(config.getValue("foo", String.class)).isEqualTo("changed");
+        Assertions.assertThat(config.getValue("other", String.class)).isEqualTo("value");
+
+        config.invalidateCachedValues();
+        Assertions.assertThat(config.getValue("other", String.class)).isEqualTo("changed");
+    }
+
+    @Test
+    void getValue_cacheInvalidatedDuringConversion() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "bar");
+        AtbashConfigBuilder builder = new AtbashConfigBuilder().withSources(buildConfigSource(properties))
+                .withValueCache();
+        AtbashConfig[] config = new AtbashConfig[1];
+        HashMap<Type, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, (Converter<String>) value -> {
+            if ("bar".equals(value)) {
+                // The value changes while the old one is converted.
+                properties.put("foo", "changed");
+                config[0].invalidateCachedValue("foo");
+            }
+            return value;
+        });
+        config[0] = new AtbashConfig(builder, converters);
+
+        Assertions.assertThat(config[0].getValue("foo", String.class)).isEqualTo("bar");
+        // The value converted before the invalidation is not kept.
+        Assertions.assertThat(config[0].getValue("foo", String.class)).isEqualTo("changed");
+    }
+
+    @Test
+    void getOptionalValue_cached() {
+        Map<String, String> properties = new HashMap<>();
+        AtbashConfigBuilder builder = new AtbashConfigBuilder().withSources(buildConfigSource(properties))
+                .withValueCache();
+        HashMap<Type, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, STRING_CONVERTER);
+        AtbashConfig config = new AtbashConfig(builder, converters);
+
+        Assertions.assertThat(config.getOptionalValue("foo", String.class)).isEmpty();
+
+        properties.put("foo", "bar");
+        Assertions.assertThat(config.getOptionalValue("foo", String.class)).isEmpty();
+
+        config.invalidateCachedValue("foo");
+        Assertions.assertThat(config.getOptionalValue("foo", String.class)).hasValue("bar");
+    }
 
     private ConfigSource buildConfigSource(String... values) {
         if (values.length % 2 != 0) {
@@ -176,6 +261,74 @@ class AtbashConfigTest {
             properties.put(values[i], values[i + 1]);
         }
 
+        return buildConfigSource(properties);
+    }
+
+    @Test
+    void getConfigValue_sameInstance() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("mp.config.profile", "dev,test");
+        properties.put("host", "example.org");
+        properties.put("%dev.port", "8080");
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new StaticMapBackedConfigSource("static", properties, 100) {
+                })
+                .build();
+
+        // Without a profile value or an expression, the ConfigValue of the source is returned as is.
+        Assertions.assertThat(config.getConfigValue("host")).isSameAs(config.getConfigValue("host"));
+        Assertions.assertThat(config.getConfigValue("port").getValue()).isEqualTo("8080");
+        Assertions.assertThat(config.getConfigValue("port").getName()).isEqualTo("port");
+    }
+
+    @Test
+    void getConfigValue_noAllocation() {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assumptions.assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("mp.config.profile", "dev");
+        properties.put("host", "example.org");
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new StaticMapBackedConfigSource("static", properties, 100) {
+                })
+                .build();
+        for (int i = 0; i < 1_000; i++) {
+            config.getConfigValue("host");
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            config.getConfigValue("host");
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - start;
+        // Some bytes for the measurement itself, but nothing per lookup.
+        Assertions.assertThat(allocated).isLessThan(10_000);
+    }
+
+    @Test
+    void getConverter_resolvedOnce() {
+        AtbashConfig config = new AtbashConfigBuilder()
+                .withSources(buildConfigSource("foo", "bar"))
+                .build();
+
+        Converter<String[]> arrayConverter = config.getConverter(String[].class).orElseThrow();
+        Assertions.assertThat(config.getConverter(String[].class)).containsSame(arrayConverter);
+        Assertions.assertThat(arrayConverter.convert("a,b")).containsExactly("a", "b");
+
+        Converter<Integer> intConverter = config.getConverter(int.class).orElseThrow();
+        Assertions.assertThat(config.getConverter(Integer.class)).containsSame(intConverter);
+
+        Assertions.assertThat(config.getConverter(Object.class)).isEmpty();
+        Assertions.assertThat(config.getConverter(Object[].class)).isEmpty();
+    }
+
+    private ConfigSource buildConfigSource(Map<String, String> properties) {
         return new ConfigSource() {
             @Override
             public Set<String> getPropertyNames() {
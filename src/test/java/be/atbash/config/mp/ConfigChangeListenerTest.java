@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import be.atbash.config.mp.sources.ConfigSourceChangeListener;
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
+import be.atbash.config.mp.sources.ObservableConfigSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class ConfigChangeListenerTest {
+
+    @Test
+    void onChange() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org", "port", "8080"));
+        AtbashConfig config = buildConfig(Map.of(), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        source.change(Map.of("host", "atbash.be", "port", "8080"));
+
+        Assertions.assertThat(events).hasSize(1);
+        ConfigChangeEvent event = events.get(0);
+        Assertions.assertThat(event.getChangedNames()).containsOnly("host");
+        Assertions.assertThat(event.getOldValue("host").getValue()).isEqualTo("example.org");
+        Assertions.assertThat(event.getNewValue("host").getValue()).isEqualTo("atbash.be");
+    }
+
+    @Test
+    void onChange_removed() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        AtbashConfig config = buildConfig(Map.of(), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        source.change(Map.of());
+
+        Assertions.assertThat(events).hasSize(1);
+        Assertions.assertThat(events.get(0).getChangedNames()).containsOnly("host");
+        Assertions.assertThat(events.get(0).getNewValue("host")).isNull();
+    }
+
+    @Test
+    void onChange_profile() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("%test.host", "test.example.org"));
+        AtbashConfig config = buildConfig(Map.of("mp.config.profile", "test", "host", "example.org"), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        source.change(Map.of("%test.host", "test.atbash.be", "%prod.host", "prod.atbash.be"));
+
+        Assertions.assertThat(events).hasSize(1);
+        ConfigChangeEvent event = events.get(0);
+        Assertions.assertThat(event.getChangedNames()).containsOnly("host");
+        Assertions.assertThat(event.getOldValue("host").getValue()).isEqualTo("test.example.org");
+        Assertions.assertThat(event.getNewValue("host").getValue()).isEqualTo("test.atbash.be");
+    }
+
+    @Test
+    void onChange_expressionDependents() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        AtbashConfig config = buildConfig(Map.of("url", "https://${host}/app", "link", "<${url}>"), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        source.change(Map.of("host", "atbash.be"));
+
+        Assertions.assertThat(events).hasSize(1);
+        ConfigChangeEvent event = events.get(0);
+        Assertions.assertThat(event.getChangedNames()).containsOnly("host", "url", "link");
+        Assertions.assertThat(event.getOldValue("link").getValue()).isEqualTo("<https://example.org/app>");
+        Assertions.assertThat(event.getNewValue("link").getValue()).isEqualTo("<https://atbash.be/app>");
+    }
+
+    @Test
+    void onChange_newReference() {
+        Map<String, String> values = new HashMap<>();
+        values.put("url", "https://example.org");
+        values.put("port", "8080");
+        TestObservableConfigSource source = new TestObservableConfigSource(values);
+        AtbashConfig config = buildConfig(Map.of(), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        values.put("url", "https://example.org:${port}");
+        source.change(values);
+        values.put("port", "9090");
+        source.change(values);
+
+        Assertions.assertThat(events).hasSize(2);
+        Assertions.assertThat(events.get(1).getChangedNames()).containsOnly("port", "url");
+        Assertions.assertThat(events.get(1).getNewValue("url").getValue()).isEqualTo("https://example.org:9090");
+    }
+
+    @Test
+    void onChange_noEffectiveChange() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        // The static source has the higher ordinal.
+        AtbashConfig config = buildConfig(Map.of("host", "static.example.org", "config_ordinal", "500"), source);
+        List<ConfigChangeEvent> events = new ArrayList<>();
+        config.addChangeListener(events::add);
+
+        source.change(Map.of("host", "atbash.be"));
+
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Test
+    void onChange_valueCacheInvalidated() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("port", "8080"));
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(source)
+                .withValueCache()
+                .build();
+
+        Assertions.assertThat(config.getValue("port", Integer.class)).isEqualTo(8080);
+
+        source.change(Map.of("port", "9090"));
+        Assertions.assertThat(config.getValue("port", Integer.class)).isEqualTo(9090);
+    }
+
+    @Test
+    void getGeneration() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        AtbashConfig config = buildConfig(Map.of(), source);
+        List<Long> generations = new ArrayList<>();
+        config.addChangeListener(event -> generations.add(config.getGeneration()));
+
+        long initial = config.getGeneration();
+        source.change(Map.of("host", "atbash.be"));
+
+        Assertions.assertThat(config.getGeneration()).isEqualTo(initial + 1);
+        // Listeners see the new generation.
+        Assertions.assertThat(generations).containsExactly(initial + 1);
+    }
+
+    @Test
+    void readConsistently() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org", "port", "8080"));
+        AtbashConfig config = buildConfig(Map.of(), source);
+        int[] executions = new int[1];
+
+        String url = config.readConsistently(c -> {
+            String host = c.getValue("host", String.class);
+            if (executions[0]++ == 0) {
+                // Change between the retrieval of both values.
+                source.change(Map.of("host", "atbash.be", "port", "9090"));
+            }
+            return host + ":" + c.getValue("port", String.class);
+        });
+
+        Assertions.assertThat(url).isEqualTo("atbash.be:9090");
+        Assertions.assertThat(executions[0]).isEqualTo(2);
+    }
+
+    @Test
+    void readConsistently_waitsForChange() throws Exception {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        AtbashConfig config = buildConfig(Map.of(), source);
+
+        List<Runnable> afterChange = source.startChange(Map.of("host", "atbash.be"));
+        CompletableFuture<String> host = CompletableFuture.supplyAsync(() -> config.readConsistently(c -> c.getValue("host", String.class)));
+        Thread.sleep(100);
+        Assertions.assertThat(host.isDone()).isFalse();
+
+        afterChange.forEach(Runnable::run);
+        Assertions.assertThat(host.get(5, TimeUnit.SECONDS)).isEqualTo("atbash.be");
+    }
+
+    @Test
+    void readConsistently_fromChangeOfSharedSource() {
+        TestObservableConfigSource source = new TestObservableConfigSource(Map.of("host", "example.org"));
+        AtbashConfig config1 = buildConfig(Map.of(), source);
+        AtbashConfig config2 = buildConfig(Map.of(), source);
+        List<Throwable> failures = new ArrayList<>();
+        config1.addChangeListener(event -> {
+            try {
+                config2.readConsistently(c -> c.getValue("host", String.class));
+            } catch (IllegalStateException e) {
+                failures.add(e);
+            }
+        });
+
+        // The change of config2 is still in progress on this thread when config1 notifies its listener.
+        source.change(Map.of("host", "atbash.be"));
+
+        Assertions.assertThat(failures).hasSize(1);
+        Assertions.assertThat(failures.get(0)).hasMessageStartingWith("MPCONFIG-1020");
+        String host = config2.readConsistently(c -> c.getValue("host", String.class));
+        Assertions.assertThat(host).isEqualTo("atbash.be");
+    }
+
+    private static AtbashConfig buildConfig(Map<String, String> staticValues, TestObservableConfigSource source) {
+        return new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new StaticMapBackedConfigSource("static", new HashMap<>(staticValues), 100) {
+                }, source)
+                .build();
+    }
+
+    private static class TestObservableConfigSource implements ObservableConfigSource {
+
+        private final List<ConfigSourceChangeListener> listeners = new ArrayList<>();
+        private Map<String, String> values;
+
+        TestObservableConfigSource(Map<String, String> values) {
+            this.values = new HashMap<>(values);
+        }
+
+        void change(Map<String, String> newValues) {
+            startChange(newValues).forEach(Runnable::run);
+        }
+
+        /**
+         * Changes the values, the change is completed by running the returned tasks.
+         */
+        List<Runnable> startChange(Map<String, String> newValues) {
+            Set<String> changedNames = new HashSet<>(values.keySet());
+            changedNames.addAll(newValues.keySet());
+            List<Runnable> afterChange = new ArrayList<>();
+            for (ConfigSourceChangeListener listener : listeners) {
+                afterChange.add(listener.beforeChange(this, changedNames));
+            }
+            values = new HashMap<>(newValues);
+            return afterChange;
+        }
+
+        @Override
+        public void addChangeListener(ConfigSourceChangeListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeChangeListener(ConfigSourceChangeListener listener) {
+            listeners.remove(listener);
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return values.keySet();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return values.get(propertyName);
+        }
+
+        @Override
+        public String getName() {
+            return "observable";
+        }
+
+        @Override
+        public int getOrdinal() {
+            return 200;
+        }
+    }
+}
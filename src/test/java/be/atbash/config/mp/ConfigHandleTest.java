@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp;
+
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
+import be.atbash.config.mp.sources.ReloadablePropertiesConfigSource;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConfigHandleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void get() {
+        AtbashConfig config = buildConfig(new StaticSource(Map.of("port", "8080")));
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+        Assertions.assertThat(handle.getOptional()).contains(8080);
+        Assertions.assertThat(handle.getName()).isEqualTo("port");
+    }
+
+    @Test
+    void get_notDefined() {
+        AtbashConfig config = buildConfig(new StaticSource(Map.of()));
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+
+        NoSuchElementException exception = Assertions.catchThrowableOfType(handle::get, NoSuchElementException.class);
+        Assertions.assertThat(exception).hasMessage("MPCONFIG-114: The config property 'port' is required but it could not be found in any config source");
+        Assertions.assertThat(handle.getOptional()).isEmpty();
+    }
+
+    @Test
+    void get_notConvertible() {
+        AtbashConfig config = buildConfig(new StaticSource(Map.of("port", "http")));
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+
+        Assertions.assertThatThrownBy(handle::get).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(handle::getOptional).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void get_generationIncreasedByInvalidation() {
+        AtbashConfig config = buildConfig(new StaticSource(Map.of("port", "8080")));
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+        long generation = config.getGeneration();
+
+        config.invalidateCachedValue("port");
+        Assertions.assertThat(config.getGeneration()).isEqualTo(generation + 1);
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+    }
+
+    @Test
+    void get_observableSourceChanged() throws IOException {
+        Path file = tempDir.resolve("config.properties");
+        Files.writeString(file, "port=8080\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            AtbashConfig config = buildConfig(source);
+            ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+            Assertions.assertThat(handle.get()).isEqualTo(8080);
+
+            Files.writeString(file, "port=9090\n");
+            source.reload();
+            Assertions.assertThat(handle.get()).isEqualTo(9090);
+        }
+    }
+
+    @Test
+    void get_dynamicSource() {
+        Map<String, String> values = new HashMap<>(Map.of("port", "8080"));
+        AtbashConfig config = buildConfig(new DynamicSource(values));
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+
+        // Changes of a dynamic source are not notified, the value is always retrieved.
+        values.put("port", "9090");
+        Assertions.assertThat(handle.get()).isEqualTo(9090);
+    }
+
+    @Test
+    void get_dynamicSourceConvertedOnlyWhenChanged() {
+        Map<String, String> values = new HashMap<>(Map.of("port", "8080"));
+        AtomicInteger conversions = new AtomicInteger();
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new DynamicSource(values))
+                .withConverter(Integer.class, 200, value -> {
+                    conversions.incrementAndGet();
+                    return Integer.valueOf(value);
+                })
+                .build();
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+        Assertions.assertThat(handle.get()).isEqualTo(8080);
+        Assertions.assertThat(conversions.get()).isEqualTo(1);
+
+        values.put("port", "9090");
+        Assertions.assertThat(handle.get()).isEqualTo(9090);
+        Assertions.assertThat(conversions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_frozenMissingValue() {
+        Map<String, String> values = new HashMap<>();
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new DynamicSource(values))
+                .freeze()
+                .build();
+        ConfigHandle<Integer> handle = config.getHandle("port", Integer.class);
+        Assertions.assertThat(handle.getOptional()).isEmpty();
+
+        // A name that isn't frozen is still retrieved from the sources.
+        values.put("port", "9090");
+        Assertions.assertThat(handle.getOptional()).contains(9090);
+    }
+
+    @Test
+    void getHandle_noConverter() {
+        AtbashConfig config = buildConfig(new StaticSource(Map.of()));
+
+        Assertions.assertThatThrownBy(() -> config.getHandle("port", ConfigHandleTest.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AtbashConfig buildConfig(ConfigSource source) {
+        return new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(source)
+                .build();
+    }
+
+    private static class StaticSource extends StaticMapBackedConfigSource {
+
+        StaticSource(Map<String, String> values) {
+            super("static", values, 100);
+        }
+    }
+
+    private static class DynamicSource implements ConfigSource {
+
+        private final Map<String, String> values;
+
+        DynamicSource(Map<String, String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return values.keySet();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return values.get(propertyName);
+        }
+
+        @Override
+        public String getName() {
+            return "dynamic";
+        }
+    }
+}
@@ -112,6 +112,15 @@ class ConfigValueImplTest {
         Assertions.assertThat(value2.getSourceOrdinal()).isEqualTo(123);
     }
 
+    @Test
+    public void configValue_withUnchanged() {
+        ConfigValueImpl value = (ConfigValueImpl) buildConfigValue();
+
+        Assertions.assertThat(value.withName("name")).isSameAs(value);
+        Assertions.assertThat(value.withValue("value")).isSameAs(value);
+        Assertions.assertThat(value.withProfile("profile")).isSameAs(value);
+    }
+
     private ConfigValue buildConfigValue() {
         ConfigValue configValue = ConfigValueImpl.builder()
                 .withName("name")
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.sources.BinaryConfigSource;
+import be.atbash.config.mp.sources.BinaryConfigSourceWriter;
+import be.atbash.config.mp.sources.PropertiesConfigSource;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to create the ConfigSources for a number of properties files and to look up a value, compared with a single
+ * {@link BinaryConfigSource} snapshot of the same files.
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.BinaryConfigSourceBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryConfigSourceBenchmark {
+
+    private static final int FILES = 30;
+    private static final int ENTRIES_PER_FILE = 200;
+
+    private Path directory;
+    private final List<URL> propertiesFiles = new ArrayList<>();
+    private Path snapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("benchmark");
+        List<ConfigSource> sources = new ArrayList<>();
+        for (int file = 0; file < FILES; file++) {
+            Path path = directory.resolve("config" + file + ".properties");
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.ISO_8859_1)) {
+                for (int i = 0; i < ENTRIES_PER_FILE; i++) {
+                    writer.write(String.format("module%d.setting%d = value %d\n", file, i, i));
+                }
+            }
+            propertiesFiles.add(path.toUri().toURL());
+            sources.add(new PropertiesConfigSource(path.toUri().toURL(), 100));
+        }
+        snapshot = directory.resolve("config.bin");
+        BinaryConfigSourceWriter.write(sources, 100, snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (URL url : propertiesFiles) {
+            Files.deleteIfExists(Path.of(url.getPath()));
+        }
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String propertiesFiles() throws IOException {
+        String result = null;
+        for (URL url : propertiesFiles) {
+            String value = new PropertiesConfigSource(url, 100).getValue("module15.setting100");
+            if (value != null) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String binarySnapshot() throws IOException {
+        return new BinaryConfigSource(snapshot).getValue("module15.setting100");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BinaryConfigSourceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.AtbashConfigProviderResolver;
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AtbashConfigProviderResolver#getConfig(ClassLoader)} for an existing Config, against the
+ * number of threads. {@code getConfig_locked} takes a shared lock around each call, as the resolver did before it
+ * had a lock free path, to show the difference in scaling.
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.ConfigProviderResolverBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigProviderResolverBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+
+    private final Object lock = new Object();
+
+    private AtbashConfigProviderResolver resolver;
+    private ClassLoader classLoader;
+
+    @Setup
+    public void setup() {
+        resolver = new AtbashConfigProviderResolver();
+        classLoader = ConfigProviderResolverBenchmark.class.getClassLoader();
+        resolver.getConfig(classLoader);  // Config exists, we measure the lookup.
+    }
+
+    @Benchmark
+    public Config getConfig() {
+        return resolver.getConfig(classLoader);
+    }
+
+    @Benchmark
+    public Config getConfig_locked() {
+        synchronized (lock) {
+            return resolver.getConfig(classLoader);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(ConfigProviderResolverBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
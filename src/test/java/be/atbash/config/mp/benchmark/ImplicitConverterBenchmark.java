@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.converter.ImplicitConverters;
+import org.eclipse.microprofile.config.spi.Converter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion time of the implicit converters found through {@code of}, {@code valueOf}, {@code parse} and the
+ * constructor, compared with a plain reflective invocation of the same method (as the converters did before).
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.ImplicitConverterBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImplicitConverterBenchmark {
+
+    private final String value = "EUR-1234";
+
+    private Converter<Money> ofConverter;
+    private Converter<CustomerId> valueOfConverter;
+    private Converter<Period> parseConverter;
+    private Converter<Sku> constructorConverter;
+
+    private Method ofMethod;
+    private Method valueOfMethod;
+    private Method parseMethod;
+    private Constructor<Sku> constructor;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        ofConverter = ImplicitConverters.getConverter(Money.class);
+        valueOfConverter = ImplicitConverters.getConverter(CustomerId.class);
+        parseConverter = ImplicitConverters.getConverter(Period.class);
+        constructorConverter = ImplicitConverters.getConverter(Sku.class);
+
+        ofMethod = Money.class.getMethod("of", String.class);
+        valueOfMethod = CustomerId.class.getMethod("valueOf", String.class);
+        parseMethod = Period.class.getMethod("parse", CharSequence.class);
+        constructor = Sku.class.getConstructor(String.class);
+    }
+
+    @Benchmark
+    public Money of() {
+        return ofConverter.convert(value);
+    }
+
+    @Benchmark
+    public Money ofReflective() throws ReflectiveOperationException {
+        return Money.class.cast(ofMethod.invoke(null, value));
+    }
+
+    @Benchmark
+    public CustomerId valueOf() {
+        return valueOfConverter.convert(value);
+    }
+
+    @Benchmark
+    public CustomerId valueOfReflective() throws ReflectiveOperationException {
+        return CustomerId.class.cast(valueOfMethod.invoke(null, value));
+    }
+
+    @Benchmark
+    public Period parse() {
+        return parseConverter.convert(value);
+    }
+
+    @Benchmark
+    public Period parseReflective() throws ReflectiveOperationException {
+        return Period.class.cast(parseMethod.invoke(null, value));
+    }
+
+    @Benchmark
+    public Sku constructor() {
+        return constructorConverter.convert(value);
+    }
+
+    @Benchmark
+    public Sku constructorReflective() throws ReflectiveOperationException {
+        return constructor.newInstance(value);
+    }
+
+    public static class Money {
+        private final String value;
+
+        private Money(String value) {
+            this.value = value;
+        }
+
+        public static Money of(String value) {
+            return new Money(value);
+        }
+    }
+
+    public static class CustomerId {
+        private final String value;
+
+        private CustomerId(String value) {
+            this.value = value;
+        }
+
+        public static CustomerId valueOf(String value) {
+            return new CustomerId(value);
+        }
+    }
+
+    public static class Period {
+        private final CharSequence value;
+
+        private Period(CharSequence value) {
+            this.value = value;
+        }
+
+        public static Period parse(CharSequence value) {
+            return new Period(value);
+        }
+    }
+
+    public static class Sku {
+        private final String value;
+
+        public Sku(String value) {
+            this.value = value;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ImplicitConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.util.ConfigSourceUtil;
+import be.atbash.config.mp.util.PropertiesParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse time of a generated properties file of several MB, through {@link Properties} followed by
+ * {@link ConfigSourceUtil#propertiesToMap(Properties)} (as {@code urlToMap} did before) and through
+ * {@link PropertiesParser}. Add {@code -prof gc} to the JMH arguments to compare the allocations.
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.PropertiesParserBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertiesParserBenchmark {
+
+    @Param({"100000"})
+    private int entries;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("benchmark", ".properties");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            writer.write("# Generated properties\n");
+            for (int i = 0; i < entries; i++) {
+                writer.write(String.format("application.module%d.setting%d = value number %d with some text\n", i % 100, i, i));
+                if (i % 1000 == 0) {
+                    writer.write(String.format("application.long%d = first part \\\n    second part \\u00e9\n", i));
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<String, String> properties() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+            properties.load(inputStream);
+        }
+        return ConfigSourceUtil.propertiesToMap(properties);
+    }
+
+    @Benchmark
+    public Map<String, String> propertiesParser() throws IOException {
+        return PropertiesParser.parse(file, StandardCharsets.ISO_8859_1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PropertiesParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
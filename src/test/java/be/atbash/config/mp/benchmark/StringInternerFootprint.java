@@ -0,0 +1,133 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
+import be.atbash.config.mp.sources.PropertiesConfigSource;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Heap footprint of the ConfigSources for a synthetic configuration of 100k keys. The keys are spread over 10 files
+ * (like a file per jar), each with a profile variant that defines the same keys again, and the values come from a
+ * small set (booleans, host names, ...).
+ * <p>
+ * {@code before} keeps, like before the {@link be.atbash.config.mp.util.StringInterner}, a separate copy of each key
+ * and value per file, {@code after} loads the files through {@link PropertiesConfigSource}.
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.StringInternerFootprint}
+ */
+public class StringInternerFootprint {
+
+    private static final int FILES = 10;
+    private static final int KEYS_PER_FILE = 10_000;
+    private static final String[] VALUES = {"true", "false", "db.example.org", "cache.example.org", "8080", "PT30S", "UTF-8", "INFO"};
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("footprint");
+        List<URL> files = writeFiles(directory);
+
+        long before = measure(() -> loadWithoutInterning(files));
+        long after = measure(() -> loadWithInterning(files));
+
+        System.out.printf("Keys: %d unique, %d entries%n", FILES * KEYS_PER_FILE, 2 * FILES * KEYS_PER_FILE);
+        System.out.printf("before: %,d bytes%n", before);
+        System.out.printf("after : %,d bytes (%.1f%%)%n", after, 100.0 * after / before);
+
+        for (URL file : files) {
+            Files.delete(Path.of(file.getPath()));
+        }
+        Files.delete(directory);
+    }
+
+    private static List<URL> writeFiles(Path directory) throws IOException {
+        List<URL> result = new ArrayList<>();
+        for (int file = 0; file < FILES; file++) {
+            for (String suffix : new String[]{"", "-dev"}) {
+                Path path = directory.resolve("config" + file + suffix + ".properties");
+                try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.ISO_8859_1)) {
+                    for (int i = 0; i < KEYS_PER_FILE; i++) {
+                        writer.write(String.format("application.module%d.component%d.setting%d=%s%n", file, i % 50, i, VALUES[i % VALUES.length]));
+                    }
+                }
+                result.add(path.toUri().toURL());
+            }
+        }
+        return result;
+    }
+
+    private static List<ConfigSource> loadWithoutInterning(List<URL> files) throws IOException {
+        List<ConfigSource> result = new ArrayList<>();
+        for (URL file : files) {
+            Properties properties = new Properties();
+            try (InputStream inputStream = file.openStream()) {
+                properties.load(inputStream);
+            }
+            Map<String, String> map = new HashMap<>();
+            properties.forEach((key, value) -> map.put(new String(key.toString()), new String(value.toString())));
+            result.add(new StaticMapBackedConfigSource(file.toString(), map, 100) {
+            });
+        }
+        return result;
+    }
+
+    private static List<ConfigSource> loadWithInterning(List<URL> files) throws IOException {
+        List<ConfigSource> result = new ArrayList<>();
+        for (URL file : files) {
+            result.add(new PropertiesConfigSource(file, 100));
+        }
+        return result;
+    }
+
+    private static long measure(SourcesLoader loader) throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gc();
+        long start = memory.getHeapMemoryUsage().getUsed();
+        List<ConfigSource> sources = loader.load();
+        gc();
+        long used = memory.getHeapMemoryUsage().getUsed() - start;
+        // Keep the sources reachable until measured.
+        if (sources.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return used;
+    }
+
+    private static void gc() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private interface SourcesLoader {
+        List<ConfigSource> load() throws IOException;
+    }
+}
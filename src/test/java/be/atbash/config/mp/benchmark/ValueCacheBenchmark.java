@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.benchmark;
+
+import be.atbash.config.mp.AtbashConfig;
+import be.atbash.config.mp.AtbashConfigBuilder;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the regular lookup through the interceptor chain with the lookup when the value cache is enabled
+ * ({@link AtbashConfigBuilder#withValueCache()}).
+ * <p>
+ * Run with the test classpath: {@code java -cp <test classpath> be.atbash.config.mp.benchmark.ValueCacheBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueCacheBenchmark {
+
+    private AtbashConfig config;
+    private AtbashConfig cachedConfig;
+
+    @Setup
+    public void setup() {
+        config = createConfig(false);
+        cachedConfig = createConfig(true);
+    }
+
+    @Benchmark
+    public String stringValue() {
+        return config.getValue("key.25", String.class);
+    }
+
+    @Benchmark
+    public String stringValue_cached() {
+        return cachedConfig.getValue("key.25", String.class);
+    }
+
+    @Benchmark
+    public Integer integerValue() {
+        return config.getValue("number.25", Integer.class);
+    }
+
+    @Benchmark
+    public Integer integerValue_cached() {
+        return cachedConfig.getValue("number.25", Integer.class);
+    }
+
+    @Benchmark
+    public Object optionalValue_missing() {
+        return config.getOptionalValue("missing.key", String.class);
+    }
+
+    @Benchmark
+    public Object optionalValue_missing_cached() {
+        return cachedConfig.getOptionalValue("missing.key", String.class);
+    }
+
+    static AtbashConfig createConfig(boolean valueCache) {
+        AtbashConfigBuilder builder = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(createSource("low", 100, 50), createSource("high", 200, 10));
+        if (valueCache) {
+            builder.withValueCache();
+        }
+        return builder.build();
+    }
+
+    static ConfigSource createSource(String name, int ordinal, int count) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            properties.put("key." + i, name + " value " + i);
+            properties.put("number." + i, String.valueOf(i));
+        }
+        return new ConfigSource() {
+            @Override
+            public Set<String> getPropertyNames() {
+                return properties.keySet();
+            }
+
+            @Override
+            public String getValue(String propertyName) {
+                return properties.get(propertyName);
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getOrdinal() {
+                return ordinal;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ValueCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
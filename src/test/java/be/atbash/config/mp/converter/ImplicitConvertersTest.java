@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.converter;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.spi.Converter;
+import org.junit.jupiter.api.Test;
+
+class ImplicitConvertersTest {
+
+    @Test
+    void getConverter_of() {
+        Converter<OfType> converter = ImplicitConverters.getConverter(OfType.class);
+        Assertions.assertThat(converter.convert("abc").value).isEqualTo("of:abc");
+    }
+
+    @Test
+    void getConverter_valueOf() {
+        Converter<ValueOfType> converter = ImplicitConverters.getConverter(ValueOfType.class);
+        Assertions.assertThat(converter.convert("abc").value).isEqualTo("valueOf:abc");
+    }
+
+    @Test
+    void getConverter_parseCharSequence() {
+        Converter<ParseType> converter = ImplicitConverters.getConverter(ParseType.class);
+        Assertions.assertThat(converter.convert("abc").value).isEqualTo("parse:abc");
+    }
+
+    @Test
+    void getConverter_constructor() {
+        Converter<ConstructorType> converter = ImplicitConverters.getConverter(ConstructorType.class);
+        Assertions.assertThat(converter.convert("abc").value).isEqualTo("constructor:abc");
+    }
+
+    @Test
+    void getConverter_nonPublicConstructor() {
+        Converter<PrivateConstructorType> converter = ImplicitConverters.getConverter(PrivateConstructorType.class);
+        Assertions.assertThat(converter.convert("abc").value).isEqualTo("abc");
+    }
+
+    @Test
+    void getConverter_emptyValue() {
+        Assertions.assertThat(ImplicitConverters.getConverter(OfType.class).convert("")).isNull();
+        Assertions.assertThat(ImplicitConverters.getConverter(ConstructorType.class).convert("")).isNull();
+    }
+
+    @Test
+    void getConverter_none() {
+        Assertions.assertThat(ImplicitConverters.getConverter(Object.class)).isNull();
+    }
+
+    @Test
+    void convert_staticMethodFails() {
+        Converter<ValueOfType> converter = ImplicitConverters.getConverter(ValueOfType.class);
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(() -> converter.convert("fail"), IllegalArgumentException.class);
+        Assertions.assertThat(exception).hasMessage("MPCONFIG-020: Failed to convert value with static method");
+        Assertions.assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void convert_constructorFails() {
+        Converter<ConstructorType> converter = ImplicitConverters.getConverter(ConstructorType.class);
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(() -> converter.convert("fail"), IllegalArgumentException.class);
+        Assertions.assertThat(exception).hasMessage("MPCONFIG-019: Failed to create new instance from Converter constructor");
+        Assertions.assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void convert_staticMethodError() {
+        Converter<ValueOfType> converter = ImplicitConverters.getConverter(ValueOfType.class);
+        Assertions.assertThatThrownBy(() -> converter.convert("error"))
+                .isExactlyInstanceOf(AssertionError.class)
+                .hasMessage("error");
+    }
+
+    @Test
+    void convert_constructorError() {
+        Converter<ConstructorType> converter = ImplicitConverters.getConverter(ConstructorType.class);
+        Assertions.assertThatThrownBy(() -> converter.convert("error"))
+                .isExactlyInstanceOf(AssertionError.class)
+                .hasMessage("error");
+    }
+
+    public static class OfType {
+        final String value;
+
+        private OfType(String value) {
+            this.value = value;
+        }
+
+        public static OfType of(String value) {
+            return new OfType("of:" + value);
+        }
+    }
+
+    public static class ValueOfType {
+        final String value;
+
+        private ValueOfType(String value) {
+            this.value = value;
+        }
+
+        public static ValueOfType valueOf(String value) {
+            if ("fail".equals(value)) {
+                throw new IllegalStateException(value);
+            }
+            if ("error".equals(value)) {
+                throw new AssertionError(value);
+            }
+            return new ValueOfType("valueOf:" + value);
+        }
+    }
+
+    public static class ParseType {
+        final String value;
+
+        private ParseType(String value) {
+            this.value = value;
+        }
+
+        public static ParseType parse(CharSequence value) {
+            return new ParseType("parse:" + value);
+        }
+    }
+
+    public static class ConstructorType {
+        final String value;
+
+        public ConstructorType(String value) {
+            if ("fail".equals(value)) {
+                throw new IllegalStateException(value);
+            }
+            if ("error".equals(value)) {
+                throw new AssertionError(value);
+            }
+            this.value = "constructor:" + value;
+        }
+    }
+
+    static class PrivateConstructorType {
+        final String value;
+
+        private PrivateConstructorType(CharSequence value) {
+            this.value = value.toString();
+        }
+    }
+}
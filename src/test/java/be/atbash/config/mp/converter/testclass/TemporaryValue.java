@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.converter.testclass;
+
+/**
+ * Value type with an implicit converter, loaded by a temporary ClassLoader in the tests. Only refers to classes
+ * of the JDK.
+ */
+public class TemporaryValue {
+
+    private final String value;
+
+    private TemporaryValue(String value) {
+        this.value = value;
+    }
+
+    public static TemporaryValue valueOf(String value) {
+        return new TemporaryValue(value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
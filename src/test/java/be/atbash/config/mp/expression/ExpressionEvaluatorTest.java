@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.expression;
+
+import be.atbash.config.mp.ConfigValueImpl;
+import be.atbash.config.mp.sources.interceptor.ConfigSourceInterceptorContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class ExpressionEvaluatorTest {
+
+    @Mock
+    private ConfigSourceInterceptorContext contextMock;
+
+    @Test
+    void parse_cached() {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        CompositeNode node1 = evaluator.parse("${foo}");
+        CompositeNode node2 = evaluator.parse("${foo}");
+        Assertions.assertThat(node1).isSameAs(node2);
+    }
+
+    @Test
+    void evaluate_noExpression() {
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        String value = "A constant $ value";
+        Assertions.assertThat(evaluator.evaluate("key", value, contextMock)).isSameAs(value);
+    }
+
+    @Test
+    void evaluate_nested() {
+        prepareMock("my.prop.three", "${my.prop.two}");
+        prepareMock("my.prop.two", "value:${my.prop}");
+        prepareMock("my.prop", "1234");
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        String result = evaluator.evaluate("key", "[${my.prop.three}]", contextMock);
+        Assertions.assertThat(result).isEqualTo("[value:1234]");
+    }
+
+    @Test
+    void evaluate_nestedWithinKeyAndDefault() {
+        prepareMock("compose", "${part}");
+        prepareMock("part", "my.prop");
+        prepareMock("fallback", "${my.prop}-default");
+        prepareMock("my.prop", "1234");
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        Assertions.assertThat(evaluator.evaluate("key", "${${compose}}", contextMock)).isEqualTo("1234");
+        Assertions.assertThat(evaluator.evaluate("key", "${missing:${fallback}}", contextMock)).isEqualTo("1234-default");
+    }
+
+    @Test
+    void evaluate_loop() {
+        prepareMock("a", "${b}");
+        prepareMock("b", "${a}");
+
+        ExpressionEvaluator evaluator = new ExpressionEvaluator();
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(() ->
+                        evaluator.evaluate("key", "${a}", contextMock)
+                , IllegalArgumentException.class);
+
+        Assertions.assertThat(exception.getMessage()).isEqualTo("MPCONFIG-035: Recursive expression expansion is too deep for 'key'");
+    }
+
+    private void prepareMock(String key, String value) {
+        lenient().when(contextMock.proceed(key)).thenReturn(new ConfigValueImpl.ConfigValueBuilder().withName(key).withValue(value).withRawValue(value).build());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.AtbashConfig;
+import be.atbash.config.mp.AtbashConfigBuilder;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class BinaryConfigSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getValue() throws IOException {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("key", "value");
+        properties.put("other", "value");
+        properties.put("empty", "");
+        properties.put("café", "€ 😀");
+        properties.put("a", "1");
+        properties.put("a.b", "2");
+        properties.put("été", "summer");
+        for (int i = 0; i < 1000; i++) {
+            properties.put("generated.key" + i, "value" + i);
+        }
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.write(properties, 275, file);
+
+        BinaryConfigSource source = new BinaryConfigSource(file);
+        Assertions.assertThat(source.getOrdinal()).isEqualTo(275);
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            Assertions.assertThat(source.getValue(entry.getKey())).as(entry.getKey()).isEqualTo(entry.getValue());
+        }
+        Assertions.assertThat(source.getValue("unknown")).isNull();
+        Assertions.assertThat(source.getValue("a.")).isNull();
+        Assertions.assertThat(source.getValue("")).isNull();
+        Assertions.assertThat(source.getValue(null)).isNull();
+        Assertions.assertThat(source.getProperties()).isEqualTo(properties);
+        Assertions.assertThat(source.getPropertyNames()).isEqualTo(properties.keySet());
+    }
+
+    @Test
+    void getValue_empty() throws IOException {
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.write(Map.of(), 100, file);
+
+        BinaryConfigSource source = new BinaryConfigSource(file);
+        Assertions.assertThat(source.getValue("key")).isNull();
+        Assertions.assertThat(source.getPropertyNames()).isEmpty();
+    }
+
+    @Test
+    void write_merged() throws IOException {
+        TestSource low = new TestSource("low", 100, Map.of("key", "low", "lowOnly", "low", "config_ordinal", "100"));
+        TestSource high = new TestSource("high", 200, Map.of("key", "high", "highOnly", "high"));
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.write(List.of(low, high), 250, file);
+
+        BinaryConfigSource source = new BinaryConfigSource(file);
+        Assertions.assertThat(source.getProperties()).containsOnly(Map.entry("key", "high")
+                , Map.entry("lowOnly", "low"), Map.entry("highOnly", "high"));
+    }
+
+    @Test
+    void write_sameOrdinalKeepsOrder() throws IOException {
+        TestSource first = new TestSource("b-first", 100, Map.of("key", "first"));
+        TestSource second = new TestSource("a-second", 100, Map.of("key", "second"));
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.write(List.of(first, second), 250, file);
+
+        Assertions.assertThat(new BinaryConfigSource(file).getValue("key")).isEqualTo("first");
+    }
+
+    @Test
+    void main_missingArguments() {
+        Assertions.assertThatThrownBy(() -> BinaryConfigSourceWriter.main(new String[]{"config.bin", "250"}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("MPCONFIG-1019: Usage: BinaryConfigSourceWriter");
+    }
+
+    @Test
+    void main() throws IOException {
+        Path properties = Files.writeString(tempDir.resolve("config.properties"), "key=value\n");
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.main(new String[]{file.toString(), "250", properties.toString()});
+
+        BinaryConfigSource source = new BinaryConfigSource(file);
+        Assertions.assertThat(source.getOrdinal()).isEqualTo(250);
+        Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+    }
+
+    @Test
+    void write_stringsShared() throws IOException {
+        Path shared = tempDir.resolve("shared.bin");
+        BinaryConfigSourceWriter.write(Map.of("key1", "a rather long value", "key2", "a rather long value"), 100, shared);
+        Path distinct = tempDir.resolve("distinct.bin");
+        BinaryConfigSourceWriter.write(Map.of("key1", "a rather long value", "key2", "another long value!!"), 100, distinct);
+
+        Assertions.assertThat(Files.size(shared)).isLessThan(Files.size(distinct));
+    }
+
+    @Test
+    void invalidFile() throws IOException {
+        Path file = tempDir.resolve("config.properties");
+        Files.writeString(file, "key=value\n");
+
+        Assertions.assertThatThrownBy(() -> new BinaryConfigSource(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("MPCONFIG-1015");
+    }
+
+    @Test
+    void usedInConfig() throws IOException {
+        Path file = tempDir.resolve("config.bin");
+        BinaryConfigSourceWriter.write(Map.of("host", "example.org", "url", "https://${host}", "%test.host", "test.example.org", "mp.config.profile", "test"), 100, file);
+
+        AtbashConfig config = new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new BinaryConfigSource(file.toUri().toURL()))
+                .build();
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("https://test.example.org");
+    }
+
+    private static class TestSource extends StaticMapBackedConfigSource {
+
+        TestSource(String name, int ordinal, Map<String, String> values) {
+            super(name, values, ordinal);
+        }
+    }
+}
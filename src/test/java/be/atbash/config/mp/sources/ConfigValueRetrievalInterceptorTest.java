@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class ConfigValueRetrievalInterceptorTest {
+
+    @Test
+    void getValue() {
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"));
+
+        ConfigValue configValue = interceptor.getValue(null, "foo");
+        Assertions.assertThat(configValue).isNotNull();
+        Assertions.assertThat(configValue.getValue()).isEqualTo("bar");
+        Assertions.assertThat(configValue.getSourceName()).isEqualTo("static");
+    }
+
+    @Test
+    void getValue_missing() {
+        TestDynamicConfigSource dynamicSource = new TestDynamicConfigSource(50);
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"), dynamicSource);
+
+        Assertions.assertThat(interceptor.getValue(null, "missing")).isNull();
+        Assertions.assertThat(dynamicSource.requestedNames).containsExactly("missing");
+    }
+
+    @Test
+    void getValue_dynamicSourceStillConsulted() {
+        TestDynamicConfigSource dynamicSource = new TestDynamicConfigSource(50);
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"), dynamicSource);
+
+        dynamicSource.properties.put("added", "later");
+        ConfigValue configValue = interceptor.getValue(null, "added");
+        Assertions.assertThat(configValue).isNotNull();
+        Assertions.assertThat(configValue.getValue()).isEqualTo("later");
+    }
+
+    @Test
+    void getValue_ordinalRespected() {
+        TestDynamicConfigSource dynamicSource = new TestDynamicConfigSource(500);
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"), dynamicSource);
+
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("bar");
+
+        dynamicSource.properties.put("foo", "override");
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("override");
+    }
+
+    @Test
+    void getValue_envSourceNotFiltered() {
+        Map<String, String> env = new HashMap<>();
+        env.put("FOO_BAR", "fromEnv");
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"), new EnvConfigSource(env, 300));
+
+        ConfigValue configValue = interceptor.getValue(null, "foo.bar");
+        Assertions.assertThat(configValue).isNotNull();
+        Assertions.assertThat(configValue.getValue()).isEqualTo("fromEnv");
+    }
+
+    @Test
+    void getValue_mergedStaticSources() {
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("low", 100, "foo", "low"),
+                new TestStaticConfigSource("high", 200, "foo", "high"));
+
+        ConfigValue configValue = interceptor.getValue(null, "foo");
+        Assertions.assertThat(configValue.getValue()).isEqualTo("high");
+        Assertions.assertThat(configValue.getSourceName()).isEqualTo("high");
+        Assertions.assertThat(interceptor.getValue(null, "foo")).isSameAs(configValue);
+    }
+
+    @Test
+    void getValue_envSourceMerged() {
+        Map<String, String> env = new HashMap<>();
+        env.put("FOO", "fromEnv");
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("low", 100, "foo", "low"),
+                new EnvConfigSource(env, 300),
+                new TestStaticConfigSource("high", 400, "foo", "high"));
+
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("high");
+
+        interceptor = createInterceptor(
+                new TestStaticConfigSource("low", 100, "foo", "low"),
+                new EnvConfigSource(env, 300));
+
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("fromEnv");
+    }
+
+    @Test
+    void getValue_lowerDynamicSourceSkipped() {
+        TestDynamicConfigSource dynamicSource = new TestDynamicConfigSource(50);
+        dynamicSource.properties.put("foo", "dynamic");
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(
+                new TestStaticConfigSource("static", 100, "foo", "bar"), dynamicSource);
+
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("bar");
+        Assertions.assertThat(dynamicSource.requestedNames).isEmpty();
+    }
+
+    @Test
+    void getValue_mapBackedSourceIsDynamic() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "bar");
+        ConfigValueRetrievalInterceptor interceptor = createInterceptor(new MapBackedConfigSource("map", properties, 100) {
+        });
+
+        properties.put("foo", "changed");
+        Assertions.assertThat(interceptor.getValue(null, "foo").getValue()).isEqualTo("changed");
+    }
+
+    private static ConfigValueRetrievalInterceptor createInterceptor(ConfigSource... sources) {
+        List<ConfigSources.ConfigSourceWithPriority> sourcesWithPriority = new ArrayList<>();
+        for (ConfigSource source : sources) {
+            sourcesWithPriority.add(new ConfigSources.ConfigSourceWithPriority(source, sourcesWithPriority.size()));
+        }
+        sourcesWithPriority.sort(Collections.reverseOrder());
+        return new ConfigValueRetrievalInterceptor(sourcesWithPriority);
+    }
+
+    private static class TestStaticConfigSource extends StaticMapBackedConfigSource {
+
+        TestStaticConfigSource(String name, int ordinal, String key, String value) {
+            super(name, new HashMap<>(Map.of(key, value)), ordinal);
+        }
+    }
+
+    private static class TestDynamicConfigSource implements ConfigSource {
+
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<String> requestedNames = new ArrayList<>();
+        private final int ordinal;
+
+        TestDynamicConfigSource(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return properties.keySet();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            requestedNames.add(propertyName);
+            return properties.get(propertyName);
+        }
+
+        @Override
+        public String getName() {
+            return "dynamic";
+        }
+
+        @Override
+        public int getOrdinal() {
+            return ordinal;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class EnvConfigSourceTest {
+
+    @Test
+    void getValue_exact() {
+        Map<String, String> env = new HashMap<>();
+        env.put("foo.bar", "exact");
+        env.put("foo_bar", "sanitized");
+        env.put("FOO_BAR", "uppercase");
+        EnvConfigSource source = new EnvConfigSource(env, 300);
+
+        Assertions.assertThat(source.getValue("foo.bar")).isEqualTo("exact");
+    }
+
+    @Test
+    void getValue_sanitized() {
+        Map<String, String> env = new HashMap<>();
+        env.put("foo_bar", "sanitized");
+        env.put("FOO_BAR", "uppercase");
+        EnvConfigSource source = new EnvConfigSource(env, 300);
+
+        Assertions.assertThat(source.getValue("foo.bar")).isEqualTo("sanitized");
+        Assertions.assertThat(source.getValue("foo_bar")).isEqualTo("sanitized");
+    }
+
+    @Test
+    void getValue_uppercase() {
+        Map<String, String> env = new HashMap<>();
+        env.put("FOO_BAR_1", "uppercase");
+        EnvConfigSource source = new EnvConfigSource(env, 300);
+
+        Assertions.assertThat(source.getValue("foo.bar-1")).isEqualTo("uppercase");
+        Assertions.assertThat(source.getValue("Foo/Bar.1")).isEqualTo("uppercase");
+        Assertions.assertThat(source.getValue("FOO_BAR_1")).isEqualTo("uppercase");
+    }
+
+    @Test
+    void getValue_noMatch() {
+        Map<String, String> env = new HashMap<>();
+        env.put("foo.bar", "value");
+        env.put("Foo_Bar", "mixed");
+        env.put("FOO_BAR_", "longer");
+        EnvConfigSource source = new EnvConfigSource(env, 300);
+
+        // Only the exact name can match a key with non-alphanumeric characters.
+        Assertions.assertThat(source.getValue("foo-bar")).isNull();
+        Assertions.assertThat(source.getValue("foo.bar.")).isEqualTo("longer");
+        Assertions.assertThat(source.getValue("foo.bar.x")).isNull();
+        Assertions.assertThat(source.getValue("unknown")).isNull();
+        Assertions.assertThat(source.getValue(null)).isNull();
+    }
+
+    @Test
+    void getValue_emptyEnvironment() {
+        EnvConfigSource source = new EnvConfigSource(new HashMap<>(), 300);
+
+        Assertions.assertThat(source.getValue("foo.bar")).isNull();
+    }
+}
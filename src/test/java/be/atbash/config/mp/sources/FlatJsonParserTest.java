@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class FlatJsonParserTest {
+
+    @Test
+    void parse() {
+        Map<String, String> result = FlatJsonParser.parse("{\"name\": \"Atbash\", \"port\": 8080, \"secure\": true, \"ratio\": -1.5e3}");
+        Assertions.assertThat(result).containsOnly(Map.entry("name", "Atbash"), Map.entry("port", "8080")
+                , Map.entry("secure", "true"), Map.entry("ratio", "-1.5e3"));
+    }
+
+    @Test
+    void parse_nested() {
+        Map<String, String> result = FlatJsonParser.parse("{\"server\": {\"host\": \"localhost\", \"tls\": {\"enabled\": false}}, \"empty\": {}}");
+        Assertions.assertThat(result).containsOnly(Map.entry("server.host", "localhost"), Map.entry("server.tls.enabled", "false"));
+    }
+
+    @Test
+    void parse_array() {
+        Map<String, String> result = FlatJsonParser.parse("{\"hosts\": [\"a\", \"b,c\", 1, null], \"none\": []}");
+        Assertions.assertThat(result).containsOnly(Map.entry("hosts", "a,b\\,c,1"), Map.entry("none", ""));
+    }
+
+    @Test
+    void parse_nullSkipped() {
+        Map<String, String> result = FlatJsonParser.parse("{\"key\": null}");
+        Assertions.assertThat(result).isEmpty();
+    }
+
+    @Test
+    void parse_escapes() {
+        Map<String, String> result = FlatJsonParser.parse("{\"key\": \"line\\nquote\\\" \\u00e9\\/\"}");
+        Assertions.assertThat(result).containsEntry("key", "line\nquote\" é/");
+    }
+
+    @Test
+    void parse_invalid() {
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(() -> FlatJsonParser.parse("{\"key\": value}"), IllegalArgumentException.class);
+        Assertions.assertThat(exception).hasMessage("MPCONFIG-1009: Invalid JSON, expected value at position 8");
+
+        Assertions.assertThatThrownBy(() -> FlatJsonParser.parse("{\"key\": 1} extra")).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> FlatJsonParser.parse("[1, 2]")).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> FlatJsonParser.parse("{\"key\": \"open")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
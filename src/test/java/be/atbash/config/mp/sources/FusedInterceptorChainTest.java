@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.sources.interceptor.*;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class FusedInterceptorChainTest {
+
+    @Test
+    void supports() {
+        ProfileConfigSourceInterceptor profile = new ProfileConfigSourceInterceptor(List.of("test"));
+        ExpressionConfigSourceInterceptor expression = new ExpressionConfigSourceInterceptor(new EmptyContext());
+
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of())).isTrue();
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(profile))).isTrue();
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(expression))).isTrue();
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(profile, expression))).isTrue();
+    }
+
+    @Test
+    void supports_notBuiltIn() {
+        ProfileConfigSourceInterceptor profile = new ProfileConfigSourceInterceptor(List.of("test"));
+        ExpressionConfigSourceInterceptor expression = new ExpressionConfigSourceInterceptor(new EmptyContext());
+        ConfigSourceInterceptor custom = ConfigSourceInterceptorContext::proceed;
+
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(custom))).isFalse();
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(profile, custom, expression))).isFalse();
+        // Not the order of the default priorities.
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(expression, profile))).isFalse();
+        Assertions.assertThat(FusedInterceptorChain.supports(List.of(profile, profile))).isFalse();
+    }
+
+    @Test
+    void proceed_sameAsGenericChain() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("host", "example.org");
+        properties.put("%test.host", "test.example.org");
+        properties.put("url", "https://${host}/${path:app}");
+        properties.put("escaped", "$${host}");
+        ConfigValueRetrievalInterceptor retrieval = new ConfigValueRetrievalInterceptor(
+                List.of(new ConfigSources.ConfigSourceWithPriority(new TestConfigSource(properties), 0)));
+        List<ConfigSourceInterceptor> interceptors = List.of(new ProfileConfigSourceInterceptor(List.of("test"))
+                , new ExpressionConfigSourceInterceptor(new EmptyContext()));
+        PropertyNamesConfigSourceInterceptor propertyNames = new PropertyNamesConfigSourceInterceptor(new HashSet<>(properties.keySet()), List.of());
+
+        ConfigSourceInterceptorContext generic = new AtbashConfigSourceInterceptorContext(ConfigSourceInterceptor.EMPTY, null);
+        generic = new AtbashConfigSourceInterceptorContext(retrieval, generic);
+        for (ConfigSourceInterceptor interceptor : interceptors) {
+            generic = new AtbashConfigSourceInterceptorContext(interceptor, generic);
+        }
+        generic = new AtbashConfigSourceInterceptorContext(propertyNames, generic);
+
+        ConfigSourceInterceptorContext fused = FusedInterceptorChain.create(retrieval, interceptors).withPropertyNames(propertyNames);
+
+        for (String name : List.of("host", "url", "escaped", "missing")) {
+            ConfigValue expected = generic.proceed(name);
+            ConfigValue actual = fused.proceed(name);
+            if (expected == null) {
+                Assertions.assertThat(actual).isNull();
+            } else {
+                Assertions.assertThat(actual.getValue()).isEqualTo(expected.getValue());
+                Assertions.assertThat(actual.getName()).isEqualTo(expected.getName());
+            }
+        }
+        Assertions.assertThat(toSet(fused.iterateNames())).isEqualTo(toSet(generic.iterateNames()));
+    }
+
+    private static Set<String> toSet(Iterator<String> names) {
+        Set<String> result = new HashSet<>();
+        names.forEachRemaining(result::add);
+        return result;
+    }
+
+    private static class TestConfigSource extends StaticMapBackedConfigSource {
+
+        TestConfigSource(Map<String, String> properties) {
+            super("test", properties, 100);
+        }
+    }
+
+    private static class EmptyContext implements ConfigSourceInterceptorContext {
+
+        @Override
+        public ConfigValue proceed(String name) {
+            return null;
+        }
+
+        @Override
+        public Iterator<String> iterateNames() {
+            return Collections.emptyIterator();
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import be.atbash.config.mp.ConfigValueImpl;
+import net.jadler.Jadler;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+class HttpConfigSourceTest {
+
+    // Long enough that only the initial poll is scheduled during the test.
+    private static final Duration INTERVAL = Duration.ofHours(1);
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        Jadler.initJadler();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Jadler.closeJadler();
+    }
+
+    @Test
+    void getValue_properties() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withHeader("Content-Type", "text/plain")
+                .withBody("key=value\nruntime=Atbash");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            Assertions.assertThat(source.getValue("runtime")).isEqualTo("Atbash");
+            Assertions.assertThat(source.getOrdinal()).isEqualTo(150);
+        }
+    }
+
+    @Test
+    void getValue_json() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"key\": \"value\", \"server\": {\"port\": 8080}, \"hosts\": [\"a\", \"b\"]}");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            Assertions.assertThat(source.getValue("server.port")).isEqualTo("8080");
+            Assertions.assertThat(source.getValue("hosts")).isEqualTo("a,b");
+        }
+    }
+
+    @Test
+    void poll_notModified() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .havingHeaderEqualTo("If-None-Match", "\"v1\"")
+                .respond()
+                .withStatus(304);
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withHeader("ETag", "\"v1\"")
+                .withBody("key=value");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+
+            Assertions.assertThat(source.poll()).isTrue();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+        }
+        Jadler.verifyThatRequest()
+                .havingHeaderEqualTo("If-None-Match", "\"v1\"")
+                .receivedOnce();
+    }
+
+    @Test
+    void poll_changed() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withBody("key=value")
+                .thenRespond()
+                .withStatus(200)
+                .withBody("key=changed\nother=new");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            List<Set<String>> changes = new ArrayList<>();
+            source.addChangeListener((s, names) -> () -> changes.add(names));
+
+            Assertions.assertThat(source.poll()).isTrue();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("changed");
+            Assertions.assertThat(changes).hasSize(1);
+            Assertions.assertThat(changes.get(0)).containsOnly("key", "other");
+        }
+    }
+
+    @Test
+    void poll_listenerFailed() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withHeader("ETag", "\"v1\"")
+                .withBody("key=value")
+                .thenRespond()
+                .withStatus(200)
+                .withHeader("ETag", "\"v2\"")
+                .withBody("key=changed");
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .havingHeaderEqualTo("If-None-Match", "\"v2\"")
+                .respond()
+                .withStatus(304);
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            AtomicInteger changes = new AtomicInteger();
+            source.addChangeListener((s, names) -> {
+                if (changes.incrementAndGet() == 1) {
+                    throw new IllegalStateException("First change fails");
+                }
+                return () -> {
+                };
+            });
+
+            Assertions.assertThat(source.poll()).isFalse();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+
+            // The failed response is not seen as the current version, the next poll retrieves it again.
+            Assertions.assertThat(source.poll()).isTrue();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("changed");
+        }
+    }
+
+    @Test
+    void create_pollerWithoutContextClassLoader() throws IOException {
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Optional<Thread> poller = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().equals("config-http-localhost"))
+                    .findAny();
+
+            Assertions.assertThat(poller).isPresent();
+            Assertions.assertThat(poller.get().getContextClassLoader()).isNull();
+        }
+    }
+
+    @Test
+    void start_whenListenerAdded() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withBody("key=value");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            Thread.sleep(200);
+            // Not polled before the Config observes the source.
+            Jadler.verifyThatRequest().receivedNever();
+            Assertions.assertThat(source.getValue("key")).isNull();
+
+            List<Set<String>> changes = new ArrayList<>();
+            source.addChangeListener((s, names) -> () -> changes.add(names));
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            Assertions.assertThat(changes).containsExactly(Set.of("key"));
+        }
+    }
+
+    @Test
+    void poll_error() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withBody("key=value")
+                .thenRespond()
+                .withStatus(500);
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, null)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+
+            Assertions.assertThat(source.poll()).isFalse();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+        }
+    }
+
+    @Test
+    void cacheFile() throws IOException, InterruptedException {
+        Path cacheFile = tempDir.resolve("cache.properties");
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withBody("key=value");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, cacheFile)) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+        }
+        Assertions.assertThat(cacheFile).exists();
+
+        // Endpoint is down, the values of the cache file are used.
+        URL url = getURL();
+        Jadler.closeJadler();
+        Jadler.initJadler();
+        try (HttpConfigSource source = new HttpConfigSource(url, 150, INTERVAL, cacheFile)) {
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+        }
+    }
+
+    @Test
+    void cacheFile_usedBeforeFirstPoll() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.properties");
+        Files.writeString(cacheFile, "key=cached\n");
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withDelay(1, TimeUnit.SECONDS)
+                .withStatus(200)
+                .withBody("key=value");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, cacheFile)) {
+            Assertions.assertThat(source.getValue("key")).isEqualTo("cached");
+        }
+    }
+
+    @Test
+    void cacheFile_writableByOthers() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.properties");
+        Files.writeString(cacheFile, "key=injected\n");
+        Assumptions.assumeTrue(Files.getFileAttributeView(cacheFile, PosixFileAttributeView.class) != null);
+        Files.setPosixFilePermissions(cacheFile, PosixFilePermissions.fromString("rw-rw-rw-"));
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withDelay(1, TimeUnit.SECONDS)
+                .withStatus(200)
+                .withBody("key=value");
+
+        try (HttpConfigSource source = new HttpConfigSource(getURL(), 150, INTERVAL, cacheFile)) {
+            Assertions.assertThat(source.getValue("key")).isNull();
+        }
+    }
+
+    @Test
+    void isTrusted() throws IOException {
+        Path cacheFile = Files.writeString(tempDir.resolve("cache.properties"), "key=value\n");
+        Assumptions.assumeTrue(Files.getFileAttributeView(cacheFile, PosixFileAttributeView.class) != null);
+
+        Files.setPosixFilePermissions(cacheFile, PosixFilePermissions.fromString("rw-r--r--"));
+        Assertions.assertThat(HttpConfigSource.isTrusted(cacheFile)).isTrue();
+        Files.setPosixFilePermissions(cacheFile, PosixFilePermissions.fromString("rw-rw-r--"));
+        Assertions.assertThat(HttpConfigSource.isTrusted(cacheFile)).isFalse();
+    }
+
+    @Test
+    void nextDelay() {
+        Assertions.assertThat(HttpConfigSource.nextDelay(1000, 0)).isEqualTo(1000);
+        Assertions.assertThat(HttpConfigSource.nextDelay(1000, 1)).isEqualTo(2000);
+        Assertions.assertThat(HttpConfigSource.nextDelay(1000, 3)).isEqualTo(8000);
+        Assertions.assertThat(HttpConfigSource.nextDelay(1000, 100)).isEqualTo(1000L * HttpConfigSource.MAX_BACKOFF_FACTOR);
+    }
+
+    @Test
+    void factory() throws IOException, InterruptedException {
+        Jadler.onRequest()
+                .havingPathEqualTo("/config")
+                .respond()
+                .withStatus(200)
+                .withBody("key=value");
+
+        Map<String, String> values = new HashMap<>();
+        values.put(HttpConfigSourceFactory.ATBASH_CONFIG_HTTP_URL, getURL().toExternalForm());
+        values.put(HttpConfigSourceFactory.ATBASH_CONFIG_HTTP_INTERVAL, "3600");
+        values.put(HttpConfigSourceFactory.ATBASH_CONFIG_HTTP_CACHE, tempDir.resolve("cache.properties").toString());
+
+        Iterable<ConfigSource> sources = new HttpConfigSourceFactory().getConfigSources(new TestConfigSourceContext(values));
+        Assertions.assertThat(sources).hasSize(1);
+        try (HttpConfigSource source = (HttpConfigSource) sources.iterator().next()) {
+            source.start();
+            Assertions.assertThat(waitFor(() -> "value".equals(source.getValue("key")))).isTrue();
+            Assertions.assertThat(source.getOrdinal()).isEqualTo(120);
+        }
+    }
+
+    @Test
+    void factory_notConfigured() {
+        Iterable<ConfigSource> sources = new HttpConfigSourceFactory().getConfigSources(new TestConfigSourceContext(Map.of()));
+        Assertions.assertThat(sources).isEmpty();
+    }
+
+    @Test
+    void factory_intervalTooSmall() throws IOException {
+        Map<String, String> values = new HashMap<>();
+        values.put(HttpConfigSourceFactory.ATBASH_CONFIG_HTTP_URL, getURL().toExternalForm());
+        values.put(HttpConfigSourceFactory.ATBASH_CONFIG_HTTP_INTERVAL, "0");
+
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(
+                () -> new HttpConfigSourceFactory().getConfigSources(new TestConfigSourceContext(values))
+                , IllegalArgumentException.class);
+        Assertions.assertThat(exception).hasMessage("MPCONFIG-1012: The value '0' of 'atbash.config.http.interval' must be at least 1 second");
+    }
+
+    @Test
+    void create_intervalNotPositive() {
+        Assertions.assertThatThrownBy(() -> new HttpConfigSource(getURL(), 150, Duration.ofSeconds(-1), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("MPCONFIG-1012: The poll interval must be positive, found PT-1S");
+    }
+
+    private static URL getURL() throws IOException {
+        return new URL("http://localhost:" + Jadler.port() + "/config");
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private static class TestConfigSourceContext implements ConfigSourceContext {
+
+        private final Map<String, String> values;
+
+        TestConfigSourceContext(Map<String, String> values) {
+            this.values = values;
+        }
+
+        @Override
+        public ConfigValue getValue(String name) {
+            return ConfigValueImpl.builder()
+                    .withName(name)
+                    .withValue(values.get(name))
+                    .withConfigSourceOrdinal(120)
+                    .build();
+        }
+
+        @Override
+        public List<String> getProfiles() {
+            return Collections.emptyList();
+        }
+    }
+}
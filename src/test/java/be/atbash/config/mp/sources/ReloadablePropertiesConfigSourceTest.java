@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+class ReloadablePropertiesConfigSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void getValue() throws IOException {
+        Path file = writeFile("key=value\nconfig_ordinal=150\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+            Assertions.assertThat(source.getOrdinal()).isEqualTo(150);
+            Assertions.assertThat(source.getPropertyNames()).containsOnly("key", "config_ordinal");
+        }
+    }
+
+    @Test
+    void getValue_fileChanged() throws IOException, InterruptedException {
+        Path file = writeFile("key=value\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100, Duration.ofMillis(50))) {
+            writeFile("key=changed\nother=new\n");
+
+            Assertions.assertThat(waitFor(() -> "changed".equals(source.getValue("key")))).isTrue();
+            Assertions.assertThat(source.getValue("other")).isEqualTo("new");
+        }
+    }
+
+    @Test
+    void getValue_burstOfChanges() throws IOException, InterruptedException {
+        Path file = writeFile("counter=0\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100, Duration.ofMillis(100))) {
+            for (int i = 1; i <= 10; i++) {
+                writeFile("counter=" + i + "\n");
+            }
+
+            Assertions.assertThat(waitFor(() -> "10".equals(source.getValue("counter")))).isTrue();
+        }
+    }
+
+    @Test
+    void reload_fileDeleted() throws IOException {
+        Path file = writeFile("key=value\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            Files.delete(file);
+            source.reload();
+
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+        }
+    }
+
+    @Test
+    void reload_listener() throws IOException {
+        Path file = writeFile("key=value\nremoved=yes\nsame=same\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            Set<String> notifiedNames = new HashSet<>();
+            List<String> valuesBeforeAndAfter = new ArrayList<>();
+            source.addChangeListener((configSource, changedNames) -> {
+                notifiedNames.addAll(changedNames);
+                valuesBeforeAndAfter.add(configSource.getValue("key"));
+                return () -> valuesBeforeAndAfter.add(configSource.getValue("key"));
+            });
+
+            writeFile("key=changed\nadded=new\nsame=same\n");
+            source.reload();
+
+            Assertions.assertThat(notifiedNames).containsOnly("key", "removed", "added");
+            Assertions.assertThat(valuesBeforeAndAfter).containsExactly("value", "changed");
+        }
+    }
+
+    @Test
+    void reload_malformedFile() throws IOException {
+        Path file = writeFile("key=value\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            writeFile("key=\\u12");
+            source.reload();
+
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+        }
+    }
+
+    @Test
+    void getValue_watchingContinuesAfterFailure() throws IOException, InterruptedException {
+        Path file = writeFile("key=value\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100, Duration.ofMillis(50))) {
+            AtomicInteger changes = new AtomicInteger();
+            source.addChangeListener((configSource, changedNames) -> {
+                if (changes.incrementAndGet() == 1) {
+                    throw new IllegalStateException("First change fails");
+                }
+                return () -> {
+                };
+            });
+
+            writeFile("key=failed\n");
+            Assertions.assertThat(waitFor(() -> changes.get() == 1)).isTrue();
+            Assertions.assertThat(source.getValue("key")).isEqualTo("value");
+
+            writeFile("key=changed\n");
+            Assertions.assertThat(waitFor(() -> "changed".equals(source.getValue("key")))).isTrue();
+        }
+    }
+
+    @Test
+    void create_watcherWithoutContextClassLoader() throws IOException {
+        Path file = writeFile("key=value\n");
+        try (ReloadablePropertiesConfigSource source = new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100)) {
+            Optional<Thread> watcher = findThread("config-reload-config.properties");
+
+            Assertions.assertThat(watcher).isPresent();
+            Assertions.assertThat(watcher.get().getContextClassLoader()).isNull();
+        }
+    }
+
+    @Test
+    void watcherStopsWhenSourceCollected() throws IOException, InterruptedException {
+        Path file = Files.writeString(tempDir.resolve("collected.properties"), "key=value\n");
+        WeakReference<ReloadablePropertiesConfigSource> source = new WeakReference<>(new ReloadablePropertiesConfigSource(file.toUri().toURL(), 100));
+
+        // System.gc() is only a request, bounded by waitFor.
+        Assertions.assertThat(waitFor(() -> {
+            System.gc();
+            return source.get() == null && findThread("config-reload-collected.properties").isEmpty();
+        })).isTrue();
+    }
+
+    @Test
+    void create_noFileURL() {
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(
+                () -> new ReloadablePropertiesConfigSource(new URL("http://localhost/config.properties"), 100)
+                , IllegalArgumentException.class);
+
+        Assertions.assertThat(exception.getMessage()).isEqualTo("MPCONFIG-1006: Only file URLs can be reloaded, found http://localhost/config.properties");
+    }
+
+    private static Optional<Thread> findThread(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals(name))
+                .findAny();
+    }
+
+    private Path writeFile(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("config.properties"), content);
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > end) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+class ResourceExistenceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mayExist_file() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("config.properties"), "key=value");
+
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(file.toUri())).isTrue();
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(tempDir.resolve("config-dev.properties").toUri())).isFalse();
+        // A directory is not a resource
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(tempDir.toUri())).isFalse();
+    }
+
+    @Test
+    void mayExist_jar() throws IOException {
+        Path jar = tempDir.resolve("config.jar");
+        writeJar(jar, "META-INF/microprofile-config.properties");
+
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(jarUri(jar, "META-INF/microprofile-config.properties"))).isTrue();
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(jarUri(jar, "META-INF/microprofile-config-dev.properties"))).isFalse();
+    }
+
+    @Test
+    void mayExist_jarModified() throws IOException {
+        Path jar = tempDir.resolve("config.jar");
+        writeJar(jar, "META-INF/microprofile-config.properties");
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(jarUri(jar, "META-INF/microprofile-config-dev.properties"))).isFalse();
+
+        writeJar(jar, "META-INF/microprofile-config.properties", "META-INF/microprofile-config-dev.properties");
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 10_000));
+
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(jarUri(jar, "META-INF/microprofile-config-dev.properties"))).isTrue();
+    }
+
+    @Test
+    void mayExist_unknown() {
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(URI.create("http://localhost:8080/config.properties"))).isTrue();
+        Assertions.assertThat(ResourceExistence.getInstance().mayExist(URI.create("jar:file:/app.jar!/BOOT-INF/lib/lib.jar!/config.properties"))).isTrue();
+    }
+
+    private static URI jarUri(Path jar, String entry) {
+        return URI.create("jar:" + jar.toUri() + "!/" + entry);
+    }
+
+    private static void writeJar(Path jar, String... entries) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (String entry : entries) {
+                output.putNextEntry(new JarEntry(entry));
+                output.write("key=value".getBytes(StandardCharsets.ISO_8859_1));
+                output.closeEntry();
+            }
+        }
+    }
+}
@@ -57,6 +57,19 @@ class ExpressionConfigSourceInterceptorTest {
         Assertions.assertThat(configValue.getValue()).isEqualTo("Atbash");
     }
 
+    @Test
+    void getValue_expression_nested() {
+        prepareMock("foo", "${first}/${second}");
+        prepareMock("first", "${second}-${third}");
+        prepareMock("second", "2");
+        prepareMock("third", "\\${escaped}");
+        ExpressionConfigSourceInterceptor interceptor = new ExpressionConfigSourceInterceptor(contextMock);
+        ConfigValue configValue = interceptor.getValue(contextMock, "foo");
+
+        Assertions.assertThat(configValue).isNotNull();
+        Assertions.assertThat(configValue.getValue()).isEqualTo("2-${escaped}/2");
+    }
+
     @Test
     void getValue_expression_missing() {
         prepareMock("foo", "${expr}");
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources.interceptor;
+
+import be.atbash.config.mp.AtbashConfig;
+import be.atbash.config.mp.AtbashConfigBuilder;
+import be.atbash.config.mp.expression.ExpressionDependencyGraph;
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+class ExpressionPreResolverTest {
+
+    @Test
+    void getValue() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/${path}");
+        properties.put("host", "example.org");
+        properties.put("path", "${host}-app");
+        AtbashConfig config = buildConfig(properties);
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/example.org-app");
+        Assertions.assertThat(config.getValue("path", String.class)).isEqualTo("example.org-app");
+    }
+
+    @Test
+    void getValue_loop() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "${bar}");
+        properties.put("bar", "${foo}");
+        AtbashConfig config = buildConfig(properties);
+
+        IllegalArgumentException exception = Assertions.catchThrowableOfType(() ->
+                        config.getValue("foo", String.class)
+                , IllegalArgumentException.class);
+
+        Assertions.assertThat(exception.getMessage()).startsWith("MPCONFIG-035: Recursive expression expansion is too deep for 'foo', loop detected");
+        Assertions.assertThat(exception.getMessage()).containsAnyOf("foo -> bar -> foo", "bar -> foo -> bar");
+    }
+
+    @Test
+    void getExpressionDependencyGraph() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/${path}");
+        properties.put("host", "example.org");
+        properties.put("path", "${host}-app");
+        properties.put("other", "value");
+        AtbashConfig config = buildConfig(properties);
+
+        Assertions.assertThat(config.getExpressionDependencyGraph().getDependencies("url")).containsExactly("host", "path");
+        Assertions.assertThat(config.getExpressionDependencyGraph().getDependents("host")).containsOnly("url", "path");
+        Assertions.assertThat(config.getExpressionDependencyGraph().getDependents("other")).isEmpty();
+    }
+
+    @Test
+    void getExpressionDependencyGraph_unmodifiable() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/app");
+        properties.put("host", "example.org");
+        AtbashConfig config = buildConfig(properties);
+
+        ExpressionDependencyGraph graph = config.getExpressionDependencyGraph();
+        Assertions.assertThatThrownBy(() -> graph.setDependencies("url", Collections.emptySet()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThat(config.getExpressionDependencyGraph().getDependents("host")).containsOnly("url");
+    }
+
+    @Test
+    void invalidate() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/${path}");
+        properties.put("host", "example.org");
+        properties.put("path", "app");
+        AtbashConfig config = buildConfig(properties);
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/app");
+
+        config.invalidateCachedValue("host");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/app");
+    }
+
+    @Test
+    void getValue_dynamicSourceAboveReference() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/${path}");
+        properties.put("host", "example.org");
+        properties.put("path", "app");
+        Map<String, String> dynamicProperties = new HashMap<>();
+        AtbashConfig config = buildConfig(properties, buildDynamicConfigSource(dynamicProperties, 200));
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/app");
+
+        // The dynamic source has a higher ordinal than the static one, so the value is never pre-resolved.
+        dynamicProperties.put("host", "atbash.be");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("atbash.be/app");
+    }
+
+    @Test
+    void getValue_missingReference() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host:localhost}/app");
+        Map<String, String> dynamicProperties = new HashMap<>();
+        AtbashConfig config = buildConfig(properties, buildDynamicConfigSource(dynamicProperties, 50));
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("localhost/app");
+
+        dynamicProperties.put("host", "atbash.be");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("atbash.be/app");
+    }
+
+    @Test
+    void getValue_changedRawValue() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/app");
+        properties.put("host", "example.org");
+        Map<String, String> dynamicProperties = new HashMap<>();
+        AtbashConfig config = buildConfig(properties, buildDynamicConfigSource(dynamicProperties, 200));
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/app");
+
+        dynamicProperties.put("url", "https://${host}");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("https://example.org");
+    }
+
+    @Test
+    void getValue_dynamicReferenceNotResolved() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "${host}/app");
+        Map<String, String> dynamicProperties = new HashMap<>();
+        dynamicProperties.put("host", "example.org");
+        AtbashConfig config = buildConfig(properties, buildDynamicConfigSource(dynamicProperties, 200));
+
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("example.org/app");
+
+        dynamicProperties.put("host", "atbash.be");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("atbash.be/app");
+    }
+
+    private static AtbashConfig buildConfig(Map<String, String> properties, ConfigSource... additionalSources) {
+        return new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new StaticMapBackedConfigSource("static", properties, 100) {
+                })
+                .withSources(additionalSources)
+                .withPreResolvedExpressions()
+                .build();
+    }
+
+    private static ConfigSource buildDynamicConfigSource(Map<String, String> properties, int ordinal) {
+        return new ConfigSource() {
+            @Override
+            public Set<String> getPropertyNames() {
+                return properties.keySet();
+            }
+
+            @Override
+            public String getValue(String propertyName) {
+                return properties.get(propertyName);
+            }
+
+            @Override
+            public String getName() {
+                return "dynamic";
+            }
+
+            @Override
+            public int getOrdinal() {
+                return ordinal;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.sources.interceptor;
+
+import be.atbash.config.mp.AtbashConfig;
+import be.atbash.config.mp.AtbashConfigBuilder;
+import be.atbash.config.mp.sources.EnvConfigSource;
+import be.atbash.config.mp.sources.StaticMapBackedConfigSource;
+import org.assertj.core.api.Assertions;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+class FrozenConfigSourceInterceptorTest {
+
+    @Test
+    void getValue() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("mp.config.profile", "test");
+        properties.put("host", "example.org");
+        properties.put("%test.host", "test.example.org");
+        properties.put("url", "https://${host}/app");
+        AtbashConfig config = buildConfig(properties);
+
+        Assertions.assertThat(config.getValue("host", String.class)).isEqualTo("test.example.org");
+        Assertions.assertThat(config.getValue("url", String.class)).isEqualTo("https://test.example.org/app");
+        Assertions.assertThat(config.getPropertyNames()).contains("host", "url", "mp.config.profile");
+    }
+
+    @Test
+    void getValue_changesNotPickedUp() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("host", "example.org");
+        Map<String, String> dynamicProperties = new HashMap<>();
+        dynamicProperties.put("port", "8080");
+        AtbashConfig config = buildConfig(properties, buildDynamicConfigSource(dynamicProperties));
+
+        Assertions.assertThat(config.getValue("port", Integer.class)).isEqualTo(8080);
+
+        dynamicProperties.put("port", "9090");
+        dynamicProperties.put("host", "atbash.be");
+        Assertions.assertThat(config.getValue("port", Integer.class)).isEqualTo(8080);
+        Assertions.assertThat(config.getValue("host", String.class)).isEqualTo("example.org");
+    }
+
+    @Test
+    void getValue_notListed() {
+        Map<String, String> env = new HashMap<>();
+        env.put("FOO_BAR", "fromEnv");
+        AtbashConfig config = buildConfig(new HashMap<>(), new EnvConfigSource(env, 300));
+
+        Assertions.assertThat(config.getValue("foo-bar", String.class)).isEqualTo("fromEnv");
+    }
+
+    @Test
+    void getValue_unresolvedExpression() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("url", "https://${host}/app");
+        AtbashConfig config = buildConfig(properties);
+
+        Assertions.assertThatThrownBy(() -> config.getValue("url", String.class))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    private static AtbashConfig buildConfig(Map<String, String> properties, ConfigSource... additionalSources) {
+        return new AtbashConfigBuilder()
+                .addDefaultInterceptors()
+                .withSources(new StaticMapBackedConfigSource("static", properties, 100) {
+                })
+                .withSources(additionalSources)
+                .freeze()
+                .build();
+    }
+
+    private static ConfigSource buildDynamicConfigSource(Map<String, String> properties) {
+        return new ConfigSource() {
+            @Override
+            public Set<String> getPropertyNames() {
+                return properties.keySet();
+            }
+
+            @Override
+            public String getValue(String propertyName) {
+                return properties.get(propertyName);
+            }
+
+            @Override
+            public String getName() {
+                return "dynamic";
+            }
+
+            @Override
+            public int getOrdinal() {
+                return 200;
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+class ExecutorUtilTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void invokeInOrder() {
+        List<Supplier<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            tasks.add(() -> {
+                sleep(10 - value);  // The first tasks finish last.
+                return value;
+            });
+        }
+
+        Assertions.assertThat(ExecutorUtil.invokeInOrder(tasks, executor)).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void invokeInOrder_noExecutor() {
+        String caller = Thread.currentThread().getName();
+        List<Supplier<String>> tasks = List.of(() -> Thread.currentThread().getName(), () -> "second");
+
+        Assertions.assertThat(ExecutorUtil.invokeInOrder(tasks, null)).containsExactly(caller, "second");
+    }
+
+    @Test
+    void invokeInOrder_exception() {
+        List<Supplier<String>> tasks = List.of(() -> "first", () -> {
+            throw new IllegalStateException("Failed to load resource");
+        });
+
+        IllegalStateException exception = Assertions.catchThrowableOfType(() -> ExecutorUtil.invokeInOrder(tasks, executor)
+                , IllegalStateException.class);
+        Assertions.assertThat(exception.getMessage()).isEqualTo("Failed to load resource");
+    }
+
+    @Test
+    void invokeInOrder_fromThreadOfExecutor() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            List<Supplier<Integer>> tasks = List.of(() -> 1, () -> 2, () -> 3);
+            // The nested tasks are queued behind the task that waits for them.
+            Future<List<Integer>> result = single.submit(() -> ExecutorUtil.invokeInOrder(tasks, single));
+
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).containsExactly(1, 2, 3);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+class PropertiesParserTest {
+
+    private static final String[] CONTENTS = {
+            "key=value\nother = value with spaces  \n",
+            "# comment\n! other comment\n\n   \nkey:value\r\nkey2 value2\rkey3\tvalue3\fx",
+            "key = first \\\n    second \\\r\n\tthird\nnext=1",
+            "# comment with continuation \\\nkey=value",
+            "a\\=b=c\\:d\nspace\\ key = \\ leading\nescapes=\\t\\n\\r\\f\\\\\\x\\u0041\\u00e9",
+            "noValue\nnoValue2=\n  =emptyKey\n:other\nkey==value\nkey2 := value",
+            "trailing=backslash\\",
+            "even=backslashes\\\\\nnext=line",
+            "continued=\\\n\nempty=line",
+            "continued=\\\n# not a comment\n",
+            "duplicate=1\nduplicate=2",
+            "",
+            "\n\n\n",
+            "lastLine=no newline",
+            "key=\\\n   \\\n   value",
+            "\\#notAComment=value\n   # indented comment\nkey=value\\",
+    };
+
+    @Test
+    void parse_sameAsProperties() throws IOException {
+        for (String content : CONTENTS) {
+            Map<String, String> expected = load(content);
+            Map<String, String> result = PropertiesParser.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+            Assertions.assertThat(result).as(content).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void parse_iso88591() {
+        byte[] content = "name=caf\u00e9".getBytes(StandardCharsets.ISO_8859_1);
+        Map<String, String> result = PropertiesParser.parse(ByteBuffer.wrap(content), StandardCharsets.ISO_8859_1);
+        Assertions.assertThat(result).containsEntry("name", "caf\u00e9");
+    }
+
+    @Test
+    void parse_utf8() throws IOException {
+        String content = "name=caf\u00e9 \u20ac \uD83D\uDE00\n\u00e9t\u00e9=summer\\\n  time";
+        Map<String, String> result = PropertiesParser.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+        Assertions.assertThat(result).isEqualTo(load(content));
+    }
+
+    @Test
+    void parse_utf8Malformed() {
+        byte[] content = {'k', '=', (byte) 0xC3, 'x', (byte) 0xE2, (byte) 0x82};
+        Map<String, String> result = PropertiesParser.parse(ByteBuffer.wrap(content), StandardCharsets.UTF_8);
+        Assertions.assertThat(result).containsEntry("k", "\uFFFDx\uFFFD");
+    }
+
+    @Test
+    void parse_malformedUnicodeEscape() {
+        ByteBuffer content = ByteBuffer.wrap("key=\\u00zz".getBytes(StandardCharsets.ISO_8859_1));
+        Assertions.assertThatThrownBy(() -> PropertiesParser.parse(content, StandardCharsets.ISO_8859_1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Malformed \\uxxxx encoding.");
+    }
+
+    @Test
+    void parse_unsupportedCharset() {
+        ByteBuffer content = ByteBuffer.wrap(new byte[0]);
+        Charset charset = StandardCharsets.UTF_16;
+        Assertions.assertThatThrownBy(() -> PropertiesParser.parse(content, charset))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parse_file(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("config.properties");
+        Files.writeString(file, "key=value\nname=caf\u00e9\n", StandardCharsets.UTF_8);
+
+        Assertions.assertThat(PropertiesParser.parse(file, StandardCharsets.UTF_8))
+                .containsOnly(Map.entry("key", "value"), Map.entry("name", "caf\u00e9"));
+        Assertions.assertThat(ConfigSourceUtil.urlToMap(file.toUri().toURL(), StandardCharsets.UTF_8))
+                .containsOnly(Map.entry("key", "value"), Map.entry("name", "caf\u00e9"));
+    }
+
+    @Test
+    void parse_emptyFile(@TempDir Path tempDir) throws IOException {
+        Path file = Files.createFile(tempDir.resolve("empty.properties"));
+
+        Assertions.assertThat(PropertiesParser.parse(file, StandardCharsets.ISO_8859_1)).isEmpty();
+    }
+
+    @Test
+    void parse_largeFile(@TempDir Path tempDir) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append("key").append(i).append("=value").append(i).append('\n');
+        }
+        Path file = tempDir.resolve("large.properties");
+        Files.writeString(file, content, StandardCharsets.ISO_8859_1);
+
+        Map<String, String> properties = PropertiesParser.parse(file, StandardCharsets.ISO_8859_1);
+        Assertions.assertThat(properties).hasSize(20_000).containsEntry("key19999", "value19999");
+        // The file isn't kept open or mapped and can be replaced.
+        Files.delete(file);
+        Assertions.assertThat(properties).containsEntry("key0", "value0");
+    }
+
+    private static Map<String, String> load(String content) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        return ConfigSourceUtil.propertiesToMap(properties);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.config.mp.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+
+class StringInternerTest {
+
+    @Test
+    void intern() {
+        String value = new String("atbash.config.interned");
+        String other = new String("atbash.config.interned");
+
+        Assertions.assertThat(StringInterner.intern(value)).isSameAs(value);
+        Assertions.assertThat(StringInterner.intern(other)).isSameAs(value);
+        Assertions.assertThat(StringInterner.intern(null)).isNull();
+    }
+
+    @Test
+    void intern_sourcesShareStrings() throws Exception {
+        String content = "atbash.shared.key=atbash.shared.value";
+        Map<String, String> parsed = PropertiesParser.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.ISO_8859_1);
+        Properties properties = new Properties();
+        properties.load(new StringReader(content));
+        Map<String, String> loaded = ConfigSourceUtil.propertiesToMap(properties);
+
+        Map.Entry<String, String> parsedEntry = parsed.entrySet().iterator().next();
+        Map.Entry<String, String> loadedEntry = loaded.entrySet().iterator().next();
+        Assertions.assertThat(loadedEntry.getKey()).isSameAs(parsedEntry.getKey());
+        Assertions.assertThat(loadedEntry.getValue()).isSameAs(parsedEntry.getValue());
+    }
+}